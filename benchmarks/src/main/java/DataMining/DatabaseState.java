@@ -0,0 +1,110 @@
+package DataMining;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 基准测试使用的图集，可以是自带的input.txt、reallyData.txt，或按参数随机生成的图集
+ * 
+ * 运行方式：mvn -B package && java -jar benchmarks/target/benchmarks.jar
+ * 例如 java -jar benchmarks/target/benchmarks.jar MiningBenchmark -p dataset=synthetic -p graphs=5000
+ * 
+ * @author cuilijuan
+ * 
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+	// 图集：input、reallyData或synthetic
+	@Param({ "input", "reallyData", "synthetic" })
+	public String dataset;
+	// 最小支持度率
+	@Param({ "0.1" })
+	public double minSupportRate;
+	// 随机图集的图个数
+	@Param({ "1000" })
+	public int graphs;
+	// 随机图集每个图的点数
+	@Param({ "20" })
+	public int nodes;
+	// 随机图集的密度，每个点平均的边数
+	@Param({ "1.5" })
+	public double density;
+	// 随机图集的点标号和边标号的种类数
+	@Param({ "10" })
+	public int labels;
+	// 随机图集标号Zipf分布的指数，0为均匀分布
+	@Param({ "0" })
+	public double zipf;
+	// 随机图集植入的频繁模式个数
+	@Param({ "0" })
+	public int patterns;
+	// 随机种子
+	@Param({ "42" })
+	public long seed;
+
+	// 图集文件地址
+	public String filePath;
+	private File file;
+
+	@Setup(Level.Trial)
+	public void createDatabase() throws IOException {
+		file = File.createTempFile("gspan-" + dataset + "-", ".txt");
+		file.deleteOnExit();
+		if ("synthetic".equals(dataset)) {
+			writeSynthetic(file);
+		} else {
+			InputStream in = DatabaseState.class.getResourceAsStream(dataset + ".txt");
+			if (in == null) {
+				throw new IllegalArgumentException("Unknown dataset: " + dataset);
+			}
+			try {
+				Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				in.close();
+			}
+		}
+		filePath = file.getAbsolutePath();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteDatabase() {
+		file.delete();
+	}
+
+	/**
+	 * 按参数生成随机图集
+	 */
+	private void writeSynthetic(File target) throws IOException {
+		GraphGenerator generator = new GraphGenerator();
+		generator.setGraphNum(graphs);
+		generator.setMinNodes(nodes);
+		generator.setMaxNodes(nodes);
+		generator.setDensity(density);
+		generator.setNodeLabelNum(labels);
+		generator.setEdgeLabelNum(labels);
+		generator.setZipfExponent(zipf);
+		generator.setPatternNum(patterns);
+		generator.setSeed(seed);
+		generator.generate(target.getAbsolutePath());
+	}
+
+	/**
+	 * 读入图集并完成预处理和单边统计，得到可以直接挖掘的工具对象
+	 */
+	public GSpanTool preparedTool() {
+		GSpanTool tool = new GSpanTool(filePath, minSupportRate);
+		tool.preprocess();
+		tool.countSeedEdges();
+		return tool;
+	}
+}
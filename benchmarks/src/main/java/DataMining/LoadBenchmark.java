@@ -0,0 +1,44 @@
+package DataMining;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 读取图集文件、统计标号频度并移除不频繁点边的耗时，并行度大于1时分段并行读取和预处理
+ * 
+ * @author cuilijuan
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+	// 读取和预处理的并行度
+	@Param({ "1" })
+	public int parallelism;
+
+	@Benchmark
+	public GSpanTool readDataFile(DatabaseState db) {
+		return new GSpanTool(db.filePath, db.minSupportRate, parallelism);
+	}
+
+	@Benchmark
+	public GSpanTool readAndPreprocess(DatabaseState db) {
+		GSpanTool tool = new GSpanTool(db.filePath, db.minSupportRate, parallelism);
+		tool.preprocess();
+		return tool;
+	}
+}
@@ -0,0 +1,44 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 从读文件到挖掘完成的端到端耗时
+ * 
+ * @author cuilijuan
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiningBenchmark {
+	// 挖掘的并行度
+	@Param({ "1" })
+	public int parallelism;
+	// 是否使用嵌入拓展
+	@Param({ "false" })
+	public boolean embeddingExtension;
+
+	@Benchmark
+	public ArrayList<Graph> freqGraphMining(DatabaseState db) {
+		GSpanTool tool = new GSpanTool(db.filePath, db.minSupportRate);
+		tool.setParallelism(parallelism);
+		tool.setEmbeddingExtension(embeddingExtension);
+		return tool.mine();
+	}
+}
@@ -0,0 +1,91 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 单边频度统计的耗时，以及逐图判断边是否存在与倒排索引查表的对比
+ * 
+ * @author cuilijuan
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeedCountBenchmark {
+	private GSpanTool tool;
+	private ArrayList<CsrGraph> graphs;
+	// 图中出现过的最大点标号和边标号加1
+	private int nodeLabelNum;
+	private int edgeLabelNum;
+
+	@Setup(Level.Trial)
+	public void setUp(DatabaseState db) {
+		tool = new GSpanTool(db.filePath, db.minSupportRate);
+		tool.preprocess();
+		graphs = tool.getTotalGraphs();
+		for (CsrGraph graph : graphs) {
+			for (int i = 0; i < graph.nodeNum(); i++) {
+				nodeLabelNum = Math.max(nodeLabelNum, graph.nodeLabels[i] + 1);
+			}
+			for (int label : graph.edgeLabels) {
+				edgeLabelNum = Math.max(edgeLabelNum, label + 1);
+			}
+		}
+	}
+
+	/**
+	 * 建立倒排索引并统计所有单边的频度，每次调用都从图集的标号频度重新开始
+	 */
+	@Benchmark
+	public GSpanTool countSeedEdges() {
+		tool.countSeedEdges();
+		return tool;
+	}
+
+	@Benchmark
+	public int hasEdgeScan() {
+		int count = 0;
+		for (int i = 0; i < nodeLabelNum; i++) {
+			for (int j = 0; j < edgeLabelNum; j++) {
+				for (int k = 0; k < nodeLabelNum; k++) {
+					for (CsrGraph graph : graphs) {
+						if (graph.hasEdge(i, j, k)) {
+							count++;
+						}
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int edgeIndexLookup() {
+		EdgeIndex index = new EdgeIndex(graphs);
+		int count = 0;
+		for (int i = 0; i < nodeLabelNum; i++) {
+			for (int j = 0; j < edgeLabelNum; j++) {
+				for (int k = 0; k < nodeLabelNum; k++) {
+					count += index.count(i, j, k);
+				}
+			}
+		}
+		return count;
+	}
+}
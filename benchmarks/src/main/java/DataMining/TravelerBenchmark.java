@@ -0,0 +1,107 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 最小编码判断和孩子边搜索的耗时，编码从种子边出发在图中逐边拓展得到
+ * 
+ * @author cuilijuan
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TravelerBenchmark {
+	// 编码的最大边数
+	@Param({ "4" })
+	public int maxEdges;
+	// 参与测试的编码个数上限
+	@Param({ "500" })
+	public int maxCodes;
+
+	private ArrayList<CsrGraph> graphs;
+	// 测试用的编码，以及编码所在的图id和点数
+	private ArrayList<ArrayList<Edge>> codes;
+	private ArrayList<Integer> codeGraphs;
+	private ArrayList<Integer> codeNodeNums;
+	private DFSCodeTraveler dTraveler;
+
+	@Setup(Level.Trial)
+	public void setUp(DatabaseState db) {
+		GSpanTool tool = db.preparedTool();
+		graphs = tool.getTotalGraphs();
+		codes = new ArrayList<>();
+		codeGraphs = new ArrayList<>();
+		codeNodeNums = new ArrayList<>();
+		dTraveler = new DFSCodeTraveler();
+
+		for (GraphCode gc : tool.seedCodes()) {
+			if (!gc.getGs().isEmpty()) {
+				addCode(gc.getEdgeSeq(), gc.getGs().toArray()[0], 2);
+			}
+		}
+		// 逐层拓展，每个编码最多取3条孩子边
+		for (int i = 0; i < codes.size() && codes.size() < maxCodes; i++) {
+			ArrayList<Edge> edgeSeq = codes.get(i);
+			if (edgeSeq.size() >= maxEdges) {
+				continue;
+			}
+			int gId = codeGraphs.get(i);
+			SubChildTraveler sct = new SubChildTraveler(edgeSeq, graphs.get(gId));
+			sct.traveler();
+			ArrayList<Edge> children = sct.getResultChildEdge();
+			for (int j = 0; j < children.size() && j < 3 && codes.size() < maxCodes; j++) {
+				ArrayList<Edge> child = new ArrayList<>(edgeSeq);
+				child.add(children.get(j));
+				int nodeNum = codeNodeNums.get(i);
+				addCode(child, gId, children.get(j).iy >= nodeNum ? children.get(j).iy + 1 : nodeNum);
+			}
+		}
+	}
+
+	private void addCode(ArrayList<Edge> edgeSeq, int gId, int nodeNum) {
+		codes.add(edgeSeq);
+		codeGraphs.add(gId);
+		codeNodeNums.add(nodeNum);
+	}
+
+	@Benchmark
+	public int dfsCodeTraveler() {
+		int minCount = 0;
+		for (int i = 0; i < codes.size(); i++) {
+			if (dTraveler.traveler(codes.get(i), codeNodeNums.get(i))) {
+				minCount++;
+			}
+		}
+		return minCount;
+	}
+
+	@Benchmark
+	public int subChildTraveler() {
+		int childCount = 0;
+		for (int i = 0; i < codes.size(); i++) {
+			SubChildTraveler sct = new SubChildTraveler(codes.get(i),
+					graphs.get(codeGraphs.get(i)));
+			sct.traveler();
+			childCount += sct.getResultChildEdge().size();
+		}
+		return childCount;
+	}
+}
@@ -0,0 +1,279 @@
+package DataMining;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * 测试用的穷举挖掘：枚举每个图的全部连通边子集，用标准形式判断同构并统计支持度
+ *
+ * 标准形式为所有点排列下编码最小的字符串，只适用于点数很少的图，作为GSpanTool结果的对照。
+ *
+ * @author cuilijuan
+ *
+ */
+class BruteForceMiner {
+
+	/**
+	 * 一个小图，标号为原始标号的字符串
+	 */
+	static class Pattern {
+		final String[] nodeLabels;
+		final int[] edgeX;
+		final int[] edgeY;
+		final String[] edgeLabels;
+		// 标准形式，第一次使用时计算
+		private String canonical;
+
+		Pattern(String[] nodeLabels, int[] edgeX, int[] edgeY, String[] edgeLabels) {
+			this.nodeLabels = nodeLabels;
+			this.edgeX = edgeX;
+			this.edgeY = edgeY;
+			this.edgeLabels = edgeLabels;
+		}
+
+		int edgeNum() {
+			return edgeX.length;
+		}
+
+		/**
+		 * 由边的子集构成的子图，只保留子集中的边用到的点
+		 */
+		Pattern subgraph(int edgeMask) {
+			int[] nodeIds = new int[nodeLabels.length];
+			Arrays.fill(nodeIds, -1);
+			ArrayList<String> labels = new ArrayList<>();
+			int edgeNum = Integer.bitCount(edgeMask);
+			int[] x = new int[edgeNum];
+			int[] y = new int[edgeNum];
+			String[] a = new String[edgeNum];
+			int k = 0;
+			for (int i = 0; i < edgeX.length; i++) {
+				if ((edgeMask >>> i & 1) == 0) {
+					continue;
+				}
+				for (int v : new int[] { edgeX[i], edgeY[i] }) {
+					if (nodeIds[v] < 0) {
+						nodeIds[v] = labels.size();
+						labels.add(nodeLabels[v]);
+					}
+				}
+				x[k] = nodeIds[edgeX[i]];
+				y[k] = nodeIds[edgeY[i]];
+				a[k] = edgeLabels[i];
+				k++;
+			}
+			return new Pattern(labels.toArray(new String[0]), x, y, a);
+		}
+
+		/**
+		 * 边的子集是否连通
+		 */
+		boolean isConnected(int edgeMask) {
+			int[] parent = new int[nodeLabels.length];
+			for (int i = 0; i < parent.length; i++) {
+				parent[i] = i;
+			}
+			int first = -1;
+			for (int i = 0; i < edgeX.length; i++) {
+				if ((edgeMask >>> i & 1) != 0) {
+					parent[find(parent, edgeX[i])] = find(parent, edgeY[i]);
+					first = edgeX[i];
+				}
+			}
+			for (int i = 0; i < edgeX.length; i++) {
+				if ((edgeMask >>> i & 1) != 0 && find(parent, edgeX[i]) != find(parent, first)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static int find(int[] parent, int v) {
+			while (parent[v] != v) {
+				v = parent[v] = parent[parent[v]];
+			}
+			return v;
+		}
+
+		/**
+		 * 少一条边的全部连通子图的标准形式
+		 */
+		HashSet<String> oneEdgeSmaller() {
+			HashSet<String> result = new HashSet<>();
+			int all = (1 << edgeNum()) - 1;
+			for (int i = 0; i < edgeNum(); i++) {
+				int mask = all & ~(1 << i);
+				if (mask != 0 && isConnected(mask)) {
+					result.add(subgraph(mask).canonical());
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * 标准形式：点按标号排序，同标号的点取全部排列，边编码最小的作为结果
+		 */
+		String canonical() {
+			if (canonical == null) {
+				Integer[] order = new Integer[nodeLabels.length];
+				for (int i = 0; i < order.length; i++) {
+					order[i] = i;
+				}
+				Arrays.sort(order, new Comparator<Integer>() {
+					@Override
+					public int compare(Integer i, Integer j) {
+						return nodeLabels[i].compareTo(nodeLabels[j]);
+					}
+				});
+				String[] sorted = new String[order.length];
+				for (int i = 0; i < order.length; i++) {
+					sorted[i] = nodeLabels[order[i]];
+				}
+				String[] best = new String[1];
+				permute(sorted, new int[nodeLabels.length], new boolean[nodeLabels.length], 0,
+						best);
+				canonical = String.join(",", sorted) + "|" + best[0];
+			}
+			return canonical;
+		}
+
+		private void permute(String[] sorted, int[] position, boolean[] used, int depth,
+				String[] best) {
+			if (depth == sorted.length) {
+				String[] edges = new String[edgeX.length];
+				for (int i = 0; i < edges.length; i++) {
+					int u = position[edgeX[i]];
+					int v = position[edgeY[i]];
+					edges[i] = String.format("%02d-%02d:%s", Math.min(u, v), Math.max(u, v),
+							edgeLabels[i]);
+				}
+				Arrays.sort(edges);
+				String code = String.join(";", edges);
+				if (best[0] == null || code.compareTo(best[0]) < 0) {
+					best[0] = code;
+				}
+				return;
+			}
+			for (int v = 0; v < nodeLabels.length; v++) {
+				if (!used[v] && nodeLabels[v].equals(sorted[depth])) {
+					used[v] = true;
+					position[v] = depth;
+					permute(sorted, position, used, depth + 1, best);
+					used[v] = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 读入t/v/e格式的图集，标号按字符串读取
+	 */
+	static ArrayList<Pattern> read(String path) throws IOException {
+		ArrayList<Pattern> graphs = new ArrayList<>();
+		ArrayList<String> nodes = null;
+		ArrayList<int[]> edges = null;
+		ArrayList<String> labels = null;
+		for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+			String[] f = line.trim().split("\\s+");
+			if (f[0].equals("t")) {
+				if (nodes != null) {
+					graphs.add(toPattern(nodes, edges, labels));
+				}
+				nodes = new ArrayList<>();
+				edges = new ArrayList<>();
+				labels = new ArrayList<>();
+			} else if (f[0].equals("v")) {
+				nodes.add(f[2]);
+			} else if (f[0].equals("e")) {
+				edges.add(new int[] { Integer.parseInt(f[1]), Integer.parseInt(f[2]) });
+				labels.add(f[3]);
+			}
+		}
+		if (nodes != null) {
+			graphs.add(toPattern(nodes, edges, labels));
+		}
+		return graphs;
+	}
+
+	private static Pattern toPattern(ArrayList<String> nodes, ArrayList<int[]> edges,
+			ArrayList<String> labels) {
+		int[] x = new int[edges.size()];
+		int[] y = new int[edges.size()];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = edges.get(i)[0];
+			y[i] = edges.get(i)[1];
+		}
+		return new Pattern(nodes.toArray(new String[0]), x, y, labels.toArray(new String[0]));
+	}
+
+	/**
+	 * 全部频繁连通子图
+	 *
+	 * @return 标准形式到支持图个数的映射
+	 */
+	static HashMap<String, Integer> mine(ArrayList<Pattern> graphs, int minSupportCount,
+			HashMap<String, Pattern> patterns) {
+		HashMap<String, Integer> support = new HashMap<>();
+		for (Pattern graph : graphs) {
+			if (graph.edgeNum() > 16) {
+				throw new IllegalArgumentException("graph too large for brute force");
+			}
+			HashSet<String> seen = new HashSet<>();
+			for (int mask = 1; mask < 1 << graph.edgeNum(); mask++) {
+				if (!graph.isConnected(mask)) {
+					continue;
+				}
+				Pattern sub = graph.subgraph(mask);
+				if (seen.add(sub.canonical())) {
+					Integer count = support.get(sub.canonical());
+					support.put(sub.canonical(), count == null ? 1 : count + 1);
+					if (!patterns.containsKey(sub.canonical())) {
+						patterns.put(sub.canonical(), sub);
+					}
+				}
+			}
+		}
+		HashMap<String, Integer> frequent = new HashMap<>();
+		for (String code : support.keySet()) {
+			if (support.get(code) >= Math.max(minSupportCount, 1)) {
+				frequent.put(code, support.get(code));
+			}
+		}
+		return frequent;
+	}
+
+	/**
+	 * 闭合的频繁子图：没有多一条边且支持度相同的频繁超图
+	 */
+	static HashSet<String> closed(HashMap<String, Integer> frequent,
+			HashMap<String, Pattern> patterns) {
+		HashSet<String> result = new HashSet<>(frequent.keySet());
+		for (String code : frequent.keySet()) {
+			for (String sub : patterns.get(code).oneEdgeSmaller()) {
+				if (frequent.get(code).equals(frequent.get(sub))) {
+					result.remove(sub);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 极大的频繁子图：没有多一条边的频繁超图
+	 */
+	static HashSet<String> maximal(HashMap<String, Integer> frequent,
+			HashMap<String, Pattern> patterns) {
+		HashSet<String> result = new HashSet<>(frequent.keySet());
+		for (String code : frequent.keySet()) {
+			result.removeAll(patterns.get(code).oneEdgeSmaller());
+		}
+		return result;
+	}
+}
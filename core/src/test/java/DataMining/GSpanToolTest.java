@@ -0,0 +1,332 @@
+package DataMining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 在小图集上把GSpanTool各种模式的结果与穷举挖掘对照
+ *
+ * 普通挖掘经过权重过滤，结果应为穷举的频繁子图的一部分，支持度相同。按支持度的top-k挖掘
+ * 在k足够大时给出全部频繁子图，不经过权重过滤，用它与穷举的频繁子图比较；闭合挖掘和极大挖掘
+ * 与从全部频繁子图中筛选的结果比较。
+ *
+ * @author cuilijuan
+ *
+ */
+public class GSpanToolTest {
+	// 大于任何测试图集的频繁子图个数，top-k挖掘时相当于不限制
+	private static final int ALL = 100000;
+	private static final long[] SEEDS = { 1, 2, 3, 4, 5, 6 };
+	private static final double[] RATES = { 0.2, 0.35 };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * 穷举挖掘的结果
+	 */
+	static class Expected {
+		final HashMap<String, BruteForceMiner.Pattern> patterns = new HashMap<>();
+		final HashMap<String, Integer> frequent;
+
+		Expected(String path, double rate) throws IOException {
+			ArrayList<BruteForceMiner.Pattern> graphs = BruteForceMiner.read(path);
+			frequent = BruteForceMiner.mine(graphs, (int) (rate * graphs.size()), patterns);
+		}
+
+		HashMap<String, Integer> restrict(HashSet<String> codes) {
+			HashMap<String, Integer> result = new HashMap<>();
+			for (String code : codes) {
+				result.put(code, frequent.get(code));
+			}
+			return result;
+		}
+	}
+
+	private String generate(long seed) throws IOException {
+		GraphGenerator generator = new GraphGenerator();
+		generator.setGraphNum(14);
+		generator.setMinNodes(3);
+		generator.setMaxNodes(6);
+		generator.setDensity(1.3);
+		generator.setNodeLabelNum(3);
+		generator.setEdgeLabelNum(2);
+		generator.setSeed(seed);
+		File file = folder.newFile("graphs" + seed + ".txt");
+		generator.generate(file.getPath());
+		return file.getPath();
+	}
+
+	/**
+	 * 用给定的设置挖掘并收集结果
+	 */
+	private static PatternSink mine(String path, double rate, int parallelism, Setting setting) {
+		GSpanTool tool = new GSpanTool(path, rate);
+		tool.setParallelism(parallelism);
+		PatternSink sink = new PatternSink(tool);
+		tool.setResultSink(sink);
+		setting.apply(tool);
+		tool.mine();
+		sink.assertNoDuplicates();
+		return sink;
+	}
+
+	interface Setting {
+		void apply(GSpanTool tool);
+	}
+
+	private static final Setting ALL_FREQUENT = new Setting() {
+		@Override
+		public void apply(GSpanTool tool) {
+			tool.setTopK(ALL);
+			tool.setTopKByWeight(false);
+		}
+	};
+
+	private static final Setting PLAIN = new Setting() {
+		@Override
+		public void apply(GSpanTool tool) {
+		}
+	};
+
+	private static final Setting EMBEDDING = new Setting() {
+		@Override
+		public void apply(GSpanTool tool) {
+			tool.setEmbeddingExtension(true);
+		}
+	};
+
+	private static final Setting ITERATIVE = new Setting() {
+		@Override
+		public void apply(GSpanTool tool) {
+			tool.setIterativeTraversal(true);
+		}
+	};
+
+	@Test
+	public void frequentSetMatchesBruteForce() throws IOException {
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			for (double rate : RATES) {
+				Expected expected = new Expected(path, rate);
+				assertFalse(expected.frequent.isEmpty());
+				assertEquals(expected.frequent, mine(path, rate, 1, ALL_FREQUENT).support);
+				// 在嵌入上拓展孩子边、显式栈遍历和并行挖掘给出相同的频繁子图
+				assertEquals(expected.frequent, mine(path, rate, 1, new Setting() {
+					@Override
+					public void apply(GSpanTool tool) {
+						ALL_FREQUENT.apply(tool);
+						tool.setEmbeddingExtension(true);
+					}
+				}).support);
+				assertEquals(expected.frequent, mine(path, rate, 1, new Setting() {
+					@Override
+					public void apply(GSpanTool tool) {
+						ALL_FREQUENT.apply(tool);
+						tool.setIterativeTraversal(true);
+						tool.setSupportPruning(false);
+					}
+				}).support);
+				assertEquals(expected.frequent, mine(path, rate, 3, ALL_FREQUENT).support);
+			}
+		}
+	}
+
+	@Test
+	public void sizeLimitsMatchBruteForce() throws IOException {
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			Expected expected = new Expected(path, RATES[0]);
+			HashMap<String, Integer> bounded = new HashMap<>();
+			for (String code : expected.frequent.keySet()) {
+				BruteForceMiner.Pattern pattern = expected.patterns.get(code);
+				if (pattern.edgeNum() >= 2 && pattern.edgeNum() <= 3
+						&& pattern.nodeLabels.length <= 3) {
+					bounded.put(code, expected.frequent.get(code));
+				}
+			}
+			assertEquals(bounded, mine(path, RATES[0], 1, new Setting() {
+				@Override
+				public void apply(GSpanTool tool) {
+					ALL_FREQUENT.apply(tool);
+					tool.setMinEdges(2);
+					tool.setMaxEdges(3);
+					tool.setMaxNodes(3);
+				}
+			}).support);
+		}
+	}
+
+	@Test
+	public void acceptedPatternsAreFrequent() throws IOException {
+		int accepted = 0;
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			for (double rate : RATES) {
+				Expected expected = new Expected(path, rate);
+				PatternSink plain = mine(path, rate, 1, PLAIN);
+				for (String code : plain.support.keySet()) {
+					assertEquals(expected.frequent.get(code), plain.support.get(code));
+				}
+				accepted += plain.support.size();
+			}
+		}
+		assertTrue(accepted > 0);
+	}
+
+	@Test
+	public void modesGiveSameResult() throws IOException {
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			for (double rate : RATES) {
+				PatternSink plain = mine(path, rate, 1, PLAIN);
+				// 在嵌入上拓展孩子边、显式栈遍历和并行挖掘给出相同的子图、支持度和权重
+				for (PatternSink other : new PatternSink[] { mine(path, rate, 1, EMBEDDING),
+						mine(path, rate, 1, ITERATIVE), mine(path, rate, 3, PLAIN) }) {
+					assertEquals(plain.support, other.support);
+					assertEquals(plain.weights, other.weights);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void parallelOutputFollowsSerialOrder() throws IOException {
+		// 图足够多，种子边内部支持图多的孩子子树也会拆分为新任务
+		GraphGenerator generator = new GraphGenerator();
+		generator.setGraphNum(200);
+		generator.setMaxNodes(12);
+		generator.setNodeLabelNum(4);
+		generator.setEdgeLabelNum(2);
+		generator.setPatternNum(3);
+		generator.setSeed(9);
+		String path = folder.newFile("large.txt").getPath();
+		generator.generate(path);
+		Setting bounded = new Setting() {
+			@Override
+			public void apply(GSpanTool tool) {
+				tool.setMaxEdges(5);
+			}
+		};
+		ArrayList<String> serial = mine(path, 0.1, 1, bounded).codes;
+		assertTrue(serial.size() > 0);
+		for (int parallelism : new int[] { 2, 4 }) {
+			assertEquals(serial, mine(path, 0.1, parallelism, bounded).codes);
+		}
+	}
+
+	@Test
+	public void closedMatchesFilteredFullSet() throws IOException {
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			for (double rate : RATES) {
+				Expected expected = new Expected(path, rate);
+				HashSet<String> closed = BruteForceMiner.closed(expected.frequent,
+						expected.patterns);
+				Setting closedMining = new Setting() {
+					@Override
+					public void apply(GSpanTool tool) {
+						tool.setClosedMining(true);
+					}
+				};
+				// 不经过权重过滤时为全部闭合子图
+				assertEquals(expected.restrict(closed), mine(path, rate, 1, new Setting() {
+					@Override
+					public void apply(GSpanTool tool) {
+						ALL_FREQUENT.apply(tool);
+						tool.setClosedMining(true);
+					}
+				}).support);
+
+				HashSet<String> plain = new HashSet<>(mine(path, rate, 1, PLAIN).support.keySet());
+				plain.retainAll(closed);
+				assertEquals(expected.restrict(plain),
+						mine(path, rate, 1, closedMining).support);
+			}
+		}
+	}
+
+	@Test
+	public void maximalMatchesFilteredFullSet() throws IOException {
+		int found = 0;
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			for (double rate : RATES) {
+				Expected expected = new Expected(path, rate);
+				HashSet<String> plain = new HashSet<>(mine(path, rate, 1, PLAIN).support.keySet());
+				plain.retainAll(BruteForceMiner.maximal(expected.frequent, expected.patterns));
+				PatternSink maximal = mine(path, rate, 1, new Setting() {
+					@Override
+					public void apply(GSpanTool tool) {
+						tool.setMaximalMining(true);
+					}
+				});
+				assertEquals(expected.restrict(plain), maximal.support);
+				found += maximal.support.size();
+			}
+		}
+		assertTrue(found > 0);
+	}
+
+	@Test
+	public void topKMatchesBestOfFullSet() throws IOException {
+		for (long seed : SEEDS) {
+			String path = generate(seed);
+			Expected expected = new Expected(path, RATES[0]);
+			ArrayList<Integer> supports = new ArrayList<>(expected.frequent.values());
+			Collections.sort(supports, Collections.reverseOrder());
+			for (final int k : new int[] { 1, 3, 10 }) {
+				PatternSink topK = mine(path, RATES[0], 1, new Setting() {
+					@Override
+					public void apply(GSpanTool tool) {
+						tool.setTopK(k);
+						tool.setTopKByWeight(false);
+					}
+				});
+				int size = Math.min(k, supports.size());
+				assertEquals(size, topK.codes.size());
+				// 结果按支持度从高到低排列，且为全部频繁子图中支持度最高的k个
+				int kth = supports.get(size - 1);
+				for (int i = 0; i < size; i++) {
+					String code = topK.codes.get(i);
+					assertNotNull(expected.frequent.get(code));
+					assertEquals(expected.frequent.get(code), topK.support.get(code));
+					assertEquals(supports.get(i), topK.support.get(code));
+				}
+				for (String code : expected.frequent.keySet()) {
+					if (expected.frequent.get(code) > kth) {
+						assertTrue(topK.support.containsKey(code));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void repeatedMiningGivesSameResult() throws IOException {
+		String path = generate(SEEDS[0]);
+		GSpanTool tool = new GSpanTool(path, RATES[0]);
+		PatternSink first = new PatternSink(tool);
+		tool.setResultSink(first);
+		tool.mine();
+		PatternSink second = new PatternSink(tool);
+		tool.setResultSink(second);
+		tool.mine();
+		assertTrue(first.support.size() > 0);
+		assertEquals(first.support, second.support);
+		assertEquals(first.weights, second.weights);
+	}
+}
@@ -0,0 +1,49 @@
+package DataMining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 图数据的读取
+ *
+ * @author cuilijuan
+ *
+ */
+public class GraphDataReaderTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void highBytesInLabels() throws IOException {
+		// 非UTF-8编码的标号中可能出现0xFF和0xFE
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write("t # 0\nv 0 a".getBytes(StandardCharsets.UTF_8));
+		out.write(0xFF);
+		out.write("\nv 1 b".getBytes(StandardCharsets.UTF_8));
+		out.write(0xFE);
+		out.write("\ne 0 1 x\nt # 1\nv 0 a\n".getBytes(StandardCharsets.UTF_8));
+		File file = folder.newFile("graphs.txt");
+		Files.write(file.toPath(), out.toByteArray());
+
+		LabelDictionary nodeDictionary = new LabelDictionary();
+		try (GraphDataReader reader = new GraphDataReader(file.getPath(), nodeDictionary,
+				new LabelDictionary())) {
+			GraphData first = reader.next();
+			assertEquals(2, first.getNodeLabels().size());
+			assertEquals(1, first.getEdgeLabels().size());
+			assertEquals(1, reader.next().getNodeLabels().size());
+			assertNull(reader.next());
+		}
+		assertEquals(3, nodeDictionary.size());
+	}
+}
@@ -0,0 +1,87 @@
+package DataMining;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 快照按窗口映射读取，结果与一次读取相同
+ *
+ * @author cuilijuan
+ *
+ */
+public class GraphSnapshotTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String writeSnapshot() throws IOException {
+		File database = folder.newFile("graphs.txt");
+		GraphGenerator generator = new GraphGenerator();
+		generator.setGraphNum(60);
+		generator.setMaxNodes(12);
+		generator.setSeed(3);
+		generator.generate(database.getPath());
+		String path = new File(folder.getRoot(), "graphs.snapshot").getPath();
+		GSpanTool.withLabelDictionary(database.getPath(), 0.1, 1).writeSnapshot(path);
+		return path;
+	}
+
+	private static void assertSame(GraphSnapshot expected, GraphSnapshot actual) {
+		assertEquals(expected.getSupportCount(), actual.getSupportCount());
+		assertArrayEquals(expected.getFreqNodeLabel(), actual.getFreqNodeLabel());
+		assertArrayEquals(expected.getFreqEdgeLabel(), actual.getFreqEdgeLabel());
+		assertArrayEquals(expected.getRankNodeLabels(), actual.getRankNodeLabels());
+		assertArrayEquals(expected.getRankEdgeLabels(), actual.getRankEdgeLabels());
+		assertEquals(expected.getNodeLabelDictionary().size(),
+				actual.getNodeLabelDictionary().size());
+		for (int i = 0; i < expected.getNodeLabelDictionary().size(); i++) {
+			assertEquals(expected.getNodeLabelDictionary().decode(i),
+					actual.getNodeLabelDictionary().decode(i));
+		}
+		assertEquals(expected.getGraphs().size(), actual.getGraphs().size());
+		for (int i = 0; i < expected.getGraphs().size(); i++) {
+			CsrGraph e = expected.getGraphs().get(i);
+			CsrGraph a = actual.getGraphs().get(i);
+			assertArrayEquals(e.nodeLabels, a.nodeLabels);
+			assertArrayEquals(e.offsets, a.offsets);
+			assertArrayEquals(e.neighbors, a.neighbors);
+			assertArrayEquals(e.edgeLabels, a.edgeLabels);
+		}
+	}
+
+	@Test
+	public void readAcrossWindows() throws IOException {
+		String path = writeSnapshot();
+		GraphSnapshot whole = GraphSnapshot.read(path);
+		// 窗口很小时数组和字典都会跨越窗口的边界
+		for (int windowBytes : new int[] { 4, 8, 12, 20, 1 << 10 }) {
+			assertSame(whole, GraphSnapshot.read(path, windowBytes));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void truncatedSnapshot() throws IOException {
+		String path = writeSnapshot();
+		byte[] bytes = Files.readAllBytes(new File(path).toPath());
+		Files.write(new File(path).toPath(), Arrays.copyOf(bytes, bytes.length - 6));
+		GraphSnapshot.read(path, 16);
+	}
+
+	@Test
+	public void writeReplacesExisting() throws IOException {
+		String path = writeSnapshot();
+		GraphSnapshot snapshot = GraphSnapshot.read(path);
+		snapshot.write(path);
+		assertFalse(new File(path + ".tmp").exists());
+		assertSame(snapshot, GraphSnapshot.read(path));
+	}
+}
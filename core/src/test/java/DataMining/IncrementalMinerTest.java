@@ -0,0 +1,158 @@
+package DataMining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 增量挖掘与从头挖掘整个图集的结果一致
+ *
+ * @author cuilijuan
+ *
+ */
+public class IncrementalMinerTest {
+	private static final double RATE = 0.1;
+	private static final int MAX_EDGES = 4;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * 生成随机图集，按图切分为文本块
+	 */
+	static ArrayList<String> generateGraphs(int graphNum, long seed) throws IOException {
+		GraphGenerator generator = new GraphGenerator();
+		generator.setGraphNum(graphNum);
+		generator.setMinNodes(4);
+		generator.setMaxNodes(8);
+		generator.setNodeLabelNum(4);
+		generator.setEdgeLabelNum(2);
+		generator.setSeed(seed);
+		StringWriter out = new StringWriter();
+		generator.generate(out);
+
+		ArrayList<String> graphs = new ArrayList<>();
+		for (String block : out.toString().split("(?m)^(?=t)")) {
+			if (!block.isEmpty()) {
+				graphs.add(block);
+			}
+		}
+		assertEquals(graphNum, graphs.size());
+		return graphs;
+	}
+
+	static String join(ArrayList<String> graphs, int from, int to) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = from; i < to; i++) {
+			sb.append(graphs.get(i));
+		}
+		return sb.toString();
+	}
+
+	private static void write(File file, String text, boolean append) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		if (append) {
+			Files.write(file.toPath(), bytes, StandardOpenOption.APPEND);
+		} else {
+			Files.write(file.toPath(), bytes);
+		}
+	}
+
+	private static String patterns(IncrementalMiner miner) throws IOException {
+		StringWriter out = new StringWriter();
+		miner.writePatterns(new TextResultSink(out, miner.getNodeLabelDictionary(),
+				miner.getEdgeLabelDictionary()));
+		return out.toString();
+	}
+
+	/**
+	 * 从头挖掘database的结果
+	 */
+	private String fromScratch(File database) throws IOException {
+		String storePath = new File(folder.getRoot(), "scratch.store").getPath();
+		new File(storePath).delete();
+		IncrementalMiner miner = new IncrementalMiner(database.getPath(), storePath, RATE);
+		miner.setMaxEdges(MAX_EDGES);
+		miner.update();
+		return patterns(miner);
+	}
+
+	@Test
+	public void batchesMatchFromScratch() throws IOException {
+		ArrayList<String> graphs = generateGraphs(120, 7);
+		File database = folder.newFile("graphs.txt");
+		String storePath = new File(folder.getRoot(), "patterns.store").getPath();
+		int[] cuts = { 50, 70, 71, 100, 120 };
+
+		write(database, join(graphs, 0, cuts[0]), false);
+		IncrementalMiner miner = new IncrementalMiner(database.getPath(), storePath, RATE);
+		miner.setMaxEdges(MAX_EDGES);
+		assertEquals(cuts[0], miner.update());
+		for (int i = 1; i < cuts.length; i++) {
+			write(database, join(graphs, cuts[i - 1], cuts[i]), true);
+			// 每批重新打开，保证从保存的文件继续
+			miner = new IncrementalMiner(database.getPath(), storePath, RATE);
+			assertEquals(cuts[i] - cuts[i - 1], miner.update());
+			assertEquals(cuts[i], miner.getGraphNum());
+			assertEquals(fromScratch(database), patterns(miner));
+		}
+		assertEquals(0, miner.update());
+
+		// 与穷举挖掘的不超过最大边数的频繁子图相同
+		HashMap<String, BruteForceMiner.Pattern> patterns = new HashMap<>();
+		HashMap<String, Integer> expected = BruteForceMiner.mine(
+				BruteForceMiner.read(database.getPath()), (int) (RATE * graphs.size()), patterns);
+		Iterator<String> it = expected.keySet().iterator();
+		while (it.hasNext()) {
+			if (patterns.get(it.next()).edgeNum() > MAX_EDGES) {
+				it.remove();
+			}
+		}
+		PatternSink sink = new PatternSink(miner.getNodeLabelDictionary(),
+				miner.getEdgeLabelDictionary());
+		miner.writePatterns(sink);
+		sink.assertNoDuplicates();
+		assertEquals(expected, sink.support);
+	}
+
+	@Test
+	public void retryAfterFailedUpdate() throws IOException {
+		ArrayList<String> graphs = generateGraphs(80, 11);
+		File database = folder.newFile("graphs.txt");
+		String storePath = new File(folder.getRoot(), "patterns.store").getPath();
+		String base = join(graphs, 0, 40);
+		write(database, base, false);
+		IncrementalMiner miner = new IncrementalMiner(database.getPath(), storePath, RATE);
+		miner.setMaxEdges(MAX_EDGES);
+		miner.update();
+
+		// 一批新图的末尾不完整，读入了一部分图之后失败
+		write(database, join(graphs, 40, 60) + "t # 60\nv 0\n", true);
+		try {
+			miner.update();
+			fail("malformed graph accepted");
+		} catch (IOException e) {
+			// 预期的失败
+		}
+		assertEquals(40, miner.getGraphNum());
+
+		// 补全之后重试，新图只加入一次
+		write(database, base + join(graphs, 40, 80), false);
+		assertEquals(40, miner.update());
+		assertEquals(80, miner.getGraphNum());
+		assertEquals(fromScratch(database), patterns(miner));
+	}
+}
@@ -0,0 +1,110 @@
+package DataMining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 从检查点继续的挖掘与不中断的挖掘结果相同
+ *
+ * @author cuilijuan
+ *
+ */
+public class MiningCheckpointTest {
+	private static final double RATE = 0.1;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// 图集文件地址
+	private String database;
+	// 检查点文件地址
+	private String checkpoint;
+
+	@Before
+	public void generate() throws IOException {
+		GraphGenerator generator = new GraphGenerator();
+		generator.setGraphNum(200);
+		generator.setMaxNodes(12);
+		generator.setNodeLabelNum(4);
+		generator.setEdgeLabelNum(2);
+		generator.setPatternNum(3);
+		generator.setSeed(9);
+		database = folder.newFile("graphs.txt").getPath();
+		generator.generate(database);
+		checkpoint = new File(folder.getRoot(), "mining.ckpt").getPath();
+	}
+
+	private GSpanTool newTool(boolean withCheckpoint) {
+		GSpanTool tool = new GSpanTool(database, RATE);
+		tool.setMaxEdges(5);
+		if (withCheckpoint) {
+			tool.setCheckpointPath(checkpoint);
+		}
+		return tool;
+	}
+
+	private static PatternSink mine(GSpanTool tool) {
+		PatternSink sink = new PatternSink(tool);
+		tool.setResultSink(sink);
+		tool.mine();
+		sink.assertNoDuplicates();
+		return sink;
+	}
+
+	/**
+	 * 结果的标准形式、支持度和权重，排序后比较
+	 */
+	private static ArrayList<String> summary(PatternSink sink) {
+		ArrayList<String> result = new ArrayList<>();
+		for (String code : sink.codes) {
+			result.add(code + " " + sink.support.get(code) + " " + sink.weights.get(code));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	@Test
+	public void resumeMatchesUninterruptedRun() {
+		ArrayList<String> expected = summary(mine(newTool(false)));
+		assertFalse(expected.isEmpty());
+
+		// 结果个数达到上限时中断，只有挖掘完整的种子边记入检查点
+		GSpanTool interrupted = newTool(true);
+		MiningBudget budget = new MiningBudget();
+		budget.setMaxPatterns(expected.size() / 2);
+		interrupted.setBudget(budget);
+		mine(interrupted);
+		MiningReport report = interrupted.getReport();
+		assertFalse(report.isComplete());
+		assertTrue(report.getExploredCount() > 0);
+		assertTrue(report.getExploredCount() < report.getSeedEdges().size());
+
+		GSpanTool resumed = newTool(true);
+		ArrayList<String> actual = summary(mine(resumed));
+		assertTrue(resumed.getReport().isComplete());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void resumeAfterTruncatedRecord() throws IOException {
+		ArrayList<String> expected = summary(mine(newTool(true)));
+
+		// 模拟写最后一条记录时进程被杀掉
+		try (RandomAccessFile file = new RandomAccessFile(checkpoint, "rw")) {
+			file.setLength(file.length() - 7);
+		}
+		assertEquals(expected, summary(mine(newTool(true))));
+	}
+}
@@ -0,0 +1,89 @@
+package DataMining;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * 测试用的结果接收者，按原始标号把结果子图转换为穷举挖掘的标准形式
+ *
+ * @author cuilijuan
+ *
+ */
+class PatternSink implements ResultSink {
+	private final GSpanTool tool;
+	private final LabelDictionary nodeDictionary;
+	private final LabelDictionary edgeDictionary;
+	// 标准形式到支持图个数的映射
+	final HashMap<String, Integer> support = new HashMap<>();
+	// 按到达次序排列的标准形式，可能重复
+	final ArrayList<String> codes = new ArrayList<>();
+	// 标准形式到权重的映射
+	final HashMap<String, Double> weights = new HashMap<>();
+
+	PatternSink(GSpanTool tool) {
+		this.tool = tool;
+		this.nodeDictionary = null;
+		this.edgeDictionary = null;
+	}
+
+	/**
+	 * 结果中的标号是字典编码时用字典还原
+	 */
+	PatternSink(LabelDictionary nodeDictionary, LabelDictionary edgeDictionary) {
+		this.tool = null;
+		this.nodeDictionary = nodeDictionary;
+		this.edgeDictionary = edgeDictionary;
+	}
+
+	/**
+	 * 结果中的标号是按频率排序后的名次或字典编码，还原为原始标号
+	 */
+	private String nodeLabel(int label) {
+		if (nodeDictionary != null) {
+			return nodeDictionary.decode(label);
+		}
+		return String.valueOf(tool.getRankNodeLabels()[label]);
+	}
+
+	private String edgeLabel(int label) {
+		if (edgeDictionary != null) {
+			return edgeDictionary.decode(label);
+		}
+		return String.valueOf(tool.getRankEdgeLabels()[label]);
+	}
+
+	@Override
+	public synchronized void accept(GraphCode gc, int nodeNum, double weight) {
+		String[] nodeLabels = new String[nodeNum];
+		ArrayList<Edge> edgeSeq = gc.getEdgeSeq();
+		int[] x = new int[edgeSeq.size()];
+		int[] y = new int[edgeSeq.size()];
+		String[] edgeLabels = new String[edgeSeq.size()];
+		for (int i = 0; i < edgeSeq.size(); i++) {
+			Edge e = edgeSeq.get(i);
+			nodeLabels[e.ix] = nodeLabel(e.x);
+			nodeLabels[e.iy] = nodeLabel(e.y);
+			x[i] = e.ix;
+			y[i] = e.iy;
+			edgeLabels[i] = edgeLabel(e.a);
+		}
+		String code = new BruteForceMiner.Pattern(nodeLabels, x, y, edgeLabels).canonical();
+		codes.add(code);
+		support.put(code, gc.getGs().cardinality());
+		weights.put(code, weight);
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+
+	void assertNoDuplicates() {
+		assertEquals("pattern reported twice", codes.size(), support.size());
+	}
+}
@@ -0,0 +1,70 @@
+package DataMining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 增量挖掘的子图文件与预处理快照不能互相误读
+ *
+ * @author cuilijuan
+ *
+ */
+public class PatternStoreTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String writeSnapshot() throws IOException {
+		File database = folder.newFile("graphs.txt");
+		Files.write(database.toPath(), ("t # 0\nv 0 1\nv 1 2\ne 0 1 3\n"
+				+ "t # 1\nv 0 1\nv 1 2\ne 0 1 3\n").getBytes(StandardCharsets.UTF_8));
+		String path = new File(folder.getRoot(), "graphs.snapshot").getPath();
+		new GSpanTool(database.getPath(), 0.5).writeSnapshot(path);
+		return path;
+	}
+
+	private String writeStore() throws IOException {
+		String path = new File(folder.getRoot(), "patterns.store").getPath();
+		new PatternStore(0.5, 0, 0).write(path);
+		return path;
+	}
+
+	@Test
+	public void storeRoundTrip() throws IOException {
+		PatternStore store = PatternStore.read(writeStore());
+		assertEquals(0.5, store.getMinSupportRate(), 0);
+		assertEquals(0, store.getGraphNum());
+		assertEquals(0, store.getFrequentCount());
+	}
+
+	@Test
+	public void snapshotReaderRejectsPatternStore() throws IOException {
+		String path = writeStore();
+		try {
+			GraphSnapshot.read(path);
+			fail("pattern store read as a snapshot");
+		} catch (IOException e) {
+			// 魔数不同
+		}
+	}
+
+	@Test
+	public void storeReaderRejectsSnapshot() throws IOException {
+		String path = writeSnapshot();
+		GraphSnapshot.read(path);
+		try {
+			PatternStore.read(path);
+			fail("snapshot read as a pattern store");
+		} catch (IOException e) {
+			// 魔数不同
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package DataMining;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 以二进制格式输出频繁子图，全部为大端编码：
+ * 
+ * 文件头为魔数和版本号，之后每个子图依次为：边数、每条边的五元组(ix, iy, x, a, y)、
+ * 点数、权重(double)、支持图个数、拥有此子图的图id
+ * 
+ * @author cuilijuan
+ * 
+ */
+public class BinaryResultSink implements ResultSink {
+	// 结果文件的魔数 "GSPR"
+	public static final int MAGIC = 0x47535052;
+	// 结果格式的版本号
+	public static final int VERSION = 1;
+
+	// 输出
+	private DataOutputStream out;
+
+	public BinaryResultSink(String filePath) throws IOException {
+		this(new FileOutputStream(filePath));
+	}
+
+	public BinaryResultSink(OutputStream out) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.out.writeInt(MAGIC);
+		this.out.writeInt(VERSION);
+	}
+
+	@Override
+	public synchronized void accept(GraphCode gc, int nodeNum, double weight)
+			throws IOException {
+		out.writeInt(gc.getEdgeSeq().size());
+		for (Edge e : gc.getEdgeSeq()) {
+			out.writeInt(e.ix);
+			out.writeInt(e.iy);
+			out.writeInt(e.x);
+			out.writeInt(e.a);
+			out.writeInt(e.y);
+		}
+		out.writeInt(nodeNum);
+		out.writeDouble(weight);
+		out.writeInt(gc.getGs().cardinality());
+		for (int id : gc.getGs().toArray()) {
+			out.writeInt(id);
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+}
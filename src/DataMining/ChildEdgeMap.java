@@ -0,0 +1,271 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * 孩子边的汇总表，以五元组压缩成的long为键，记录每种孩子边所属的图id和嵌入
+ *
+ * 开放定址的散列表，五元组相同的孩子边无论来自哪个图都合并为同一项。
+ * 同一父编码的孩子边只有两种：从最右点r连向最右路径上点的后向边(r, j)，和从最右路径上的点
+ * 连向新点的前向边(i, r + 1)。键从高位到低位依次为：后向边标志位、后向边的j或前向边的
+ * (最大id - i)、另一个id、x、y、a，后向边标志位为符号位。这样同一父编码的孩子边按键排序
+ * 就是Edge.compare的DFS字典序：后向边在前且j小的在前，前向边i大的在前。
+ *
+ * @author cuilijuan
+ *
+ */
+public class ChildEdgeMap {
+	// 五元组各个分量所占的位数，加上后向边标志位合计64位
+	private static final int ID_BITS = 11;
+	private static final int ID_MAX = (1 << ID_BITS) - 1;
+	private static final int NODE_LABEL_BITS = 14;
+	private static final int EDGE_LABEL_BITS = 13;
+	// 键能表示的点标号和边标号的个数，重新标号后的标号须小于此数
+	public static final int MAX_NODE_LABELS = 1 << NODE_LABEL_BITS;
+	public static final int MAX_EDGE_LABELS = 1 << EDGE_LABEL_BITS;
+	// 散列表的最大装载因子为1/2
+	private static final int LOAD_SHIFT = 1;
+
+	// 图的总数
+	private final int universe;
+	// 散列表，存放项的下标加1，0代表空位
+	private int[] table;
+	// 按加入次序排列的各项的键
+	private long[] keys;
+	// 各项所属的图id，升序排列
+	private int[][] graphIds;
+	// 各项所属的图的个数
+	private int[] counts;
+	// 各项中最大的图个数
+	private int maxCount = 0;
+	// 各项的嵌入，不记录嵌入时为null
+	private ArrayList<ArrayList<Embedding>> embeddings;
+	// 项的个数
+	private int size = 0;
+
+	/**
+	 * @param universe
+	 *            图的总数
+	 * @param withEmbeddings
+	 *            是否记录孩子边的嵌入
+	 */
+	public ChildEdgeMap(int universe, boolean withEmbeddings) {
+		this.universe = universe;
+		this.table = new int[16];
+		this.keys = new long[8];
+		this.graphIds = new int[8][];
+		this.counts = new int[8];
+		if (withEmbeddings) {
+			this.embeddings = new ArrayList<>();
+		}
+	}
+
+	/**
+	 * 将五元组压缩为键，分量超出位数范围时抛出异常
+	 */
+	public static long toKey(int ix, int iy, int x, int a, int y) {
+		if (ix >>> ID_BITS != 0 || iy >>> ID_BITS != 0 || x >>> NODE_LABEL_BITS != 0
+				|| y >>> NODE_LABEL_BITS != 0 || a >>> EDGE_LABEL_BITS != 0) {
+			throw new IllegalArgumentException("edge (" + ix + ", " + iy + ", " + x + ", "
+					+ a + ", " + y + ") does not fit in a packed child edge key");
+		}
+		boolean backward = ix > iy;
+		long key = backward ? 1 : 0;
+		key = key << ID_BITS | (backward ? iy : ID_MAX - ix);
+		key = key << ID_BITS | (backward ? ix : iy);
+		key = key << NODE_LABEL_BITS | x;
+		key = key << NODE_LABEL_BITS | y;
+		key = key << EDGE_LABEL_BITS | a;
+		return key;
+	}
+
+	/**
+	 * 由键还原出边
+	 */
+	public static Edge toEdge(long key) {
+		int a = (int) (key & ((1 << EDGE_LABEL_BITS) - 1));
+		key >>>= EDGE_LABEL_BITS;
+		int y = (int) (key & ((1 << NODE_LABEL_BITS) - 1));
+		key >>>= NODE_LABEL_BITS;
+		int x = (int) (key & ((1 << NODE_LABEL_BITS) - 1));
+		key >>>= NODE_LABEL_BITS;
+		int other = (int) (key & ID_MAX);
+		key >>>= ID_BITS;
+		int first = (int) (key & ID_MAX);
+		if ((key >>> ID_BITS) != 0) {
+			return new Edge(other, first, x, a, y);
+		}
+		return new Edge(ID_MAX - first, other, x, a, y);
+	}
+
+	/**
+	 * 记录孩子边出现在某个图中，同一个图的边需连续加入，图id需按升序加入
+	 *
+	 * @param e
+	 *            孩子边
+	 * @param gId
+	 *            图id
+	 * @return 孩子边所在项的下标
+	 */
+	public int add(Edge e, int gId) {
+		int entry = findOrInsert(toKey(e.ix, e.iy, e.x, e.a, e.y));
+		addGraphId(entry, gId);
+		return entry;
+	}
+
+	/**
+	 * 只在孩子边已经存在时记录它出现在某个图中
+	 *
+	 * @param e
+	 *            孩子边
+	 * @param gId
+	 *            图id
+	 * @return 孩子边所在项的下标，不存在时返回-1
+	 */
+	public int addIfPresent(Edge e, int gId) {
+		int entry = find(toKey(e.ix, e.iy, e.x, e.a, e.y));
+		if (entry >= 0) {
+			addGraphId(entry, gId);
+		}
+		return entry;
+	}
+
+	private void addGraphId(int entry, int gId) {
+		int count = counts[entry];
+		int[] ids = graphIds[entry];
+		// 同一个图只记录一次
+		if (count > 0 && ids[count - 1] == gId) {
+			return;
+		}
+		if (count == ids.length) {
+			ids = Arrays.copyOf(ids, count * 2);
+			graphIds[entry] = ids;
+		}
+		ids[count] = gId;
+		counts[entry] = count + 1;
+		maxCount = Math.max(maxCount, count + 1);
+	}
+
+	/**
+	 * 记录孩子边在图中的一个嵌入
+	 *
+	 * @param entry
+	 *            孩子边所在项的下标
+	 * @param embedding
+	 *            嵌入
+	 */
+	public void addEmbedding(int entry, Embedding embedding) {
+		embeddings.get(entry).add(embedding);
+	}
+
+	/**
+	 * 查找键所在项的下标，不存在时返回-1
+	 */
+	private int find(long key) {
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		while (table[slot] != 0) {
+			int entry = table[slot] - 1;
+			if (keys[entry] == key) {
+				return entry;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int findOrInsert(long key) {
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		while (table[slot] != 0) {
+			int entry = table[slot] - 1;
+			if (keys[entry] == key) {
+				return entry;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			graphIds = Arrays.copyOf(graphIds, size * 2);
+			counts = Arrays.copyOf(counts, size * 2);
+		}
+		int entry = size++;
+		keys[entry] = key;
+		graphIds[entry] = new int[2];
+		if (embeddings != null) {
+			embeddings.add(new ArrayList<Embedding>());
+		}
+		table[slot] = entry + 1;
+		if (size << LOAD_SHIFT > table.length) {
+			rehash();
+		}
+		return entry;
+	}
+
+	private void rehash() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int entry = 0; entry < size; entry++) {
+			int slot = hash(keys[entry]) & mask;
+			while (table[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = entry + 1;
+		}
+	}
+
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	/**
+	 * 不同孩子边的个数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 按DFS编码次序排列的各项下标，只对同一父编码的孩子边成立
+	 */
+	public int[] sortedEntries() {
+		long[] sorted = Arrays.copyOf(keys, size);
+		Arrays.sort(sorted);
+		int[] entries = new int[size];
+		for (int i = 0; i < size; i++) {
+			entries[i] = find(sorted[i]);
+		}
+		return entries;
+	}
+
+	public Edge getEdge(int entry) {
+		return toEdge(keys[entry]);
+	}
+
+	/**
+	 * 孩子边所属的图的个数，即支持度计数
+	 */
+	public int getCount(int entry) {
+		return counts[entry];
+	}
+
+	/**
+	 * 各项中最大的图个数，用于估计支持度上界
+	 */
+	public int getMaxCount() {
+		return maxCount;
+	}
+
+	public GraphIdSet getGraphIds(int entry) {
+		return GraphIdSet.of(graphIds[entry], counts[entry], universe);
+	}
+
+	public ArrayList<Embedding> getEmbeddings(int entry) {
+		return embeddings == null ? null : embeddings.get(entry);
+	}
+}
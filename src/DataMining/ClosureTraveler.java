@@ -0,0 +1,307 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * 闭合判断搜索类，判断编码的子图是否存在支持度相同的超图，用于闭合频繁子图挖掘
+ *
+ * 在每个支持图中找出编码的所有嵌入，记录每个嵌入上能多加的一条边：从子图的点连向新点的边，
+ * 或者连接子图中两个不相邻的点的边。某条边出现在所有支持图中时，加上它的超图与子图的支持度相同，
+ * 子图不是闭合的。某条连接已有两点的边出现在所有嵌入上时（等价出现），不含这条边的子孙子图
+ * 也都不是闭合的，可以提前结束这部分子树的挖掘。
+ *
+ * @author cuilijuan
+ *
+ */
+public class ClosureTraveler {
+	// 当前的五元组边
+	ArrayList<Edge> edgeSeq;
+	// 编码所含的点的个数
+	int next;
+	// 编码中两个id标识之间是否有边
+	boolean[][] codeEdge;
+	// 编码中每个id标识在DFS树中的父节点标识，根为-1
+	int[] parent;
+	// 出现在已处理的每个支持图中的拓展边的键，升序排列，为null时还没有处理任何图
+	long[] candidates;
+	// 出现在已处理的每个嵌入上的连接已有两点的拓展边的键，升序排列，为null时还没有找到嵌入
+	long[] equivalents;
+	// 当前的图
+	CsrGraph graph;
+	// 图的点id对五元组id标识的映射
+	int[] g2s;
+	// 五元组id标识对图的点id的映射
+	int[] s2g;
+	// 处理第一个图时记录其所有嵌入上出现的拓展边
+	HashSet<Long> firstGraphKeys;
+	// 之后的图中各个候选边是否出现过，以及出现过的个数
+	boolean[] found;
+	int foundNum;
+	// 当前嵌入上各个等价出现的边是否出现
+	boolean[] equivalentSeen;
+	// 当前图中剩下的嵌入已经不会改变结果，可以停止搜索
+	boolean graphDone;
+
+	public ClosureTraveler(ArrayList<Edge> edgeSeq, int next) {
+		this.edgeSeq = edgeSeq;
+		this.next = next;
+		this.codeEdge = new boolean[next][next];
+		this.parent = new int[next];
+		for (int i = 0; i < next; i++) {
+			parent[i] = -1;
+		}
+		for (Edge e : edgeSeq) {
+			codeEdge[e.ix][e.iy] = true;
+			codeEdge[e.iy][e.ix] = true;
+			if (e.ix < e.iy) {
+				parent[e.iy] = e.ix;
+			}
+		}
+	}
+
+	/**
+	 * 处理一个支持图
+	 *
+	 * @param graph
+	 *            支持图
+	 * @param embeddings
+	 *            编码在此图中的全部嵌入，为null时在图中重新搜索
+	 * @return 是否还有可能存在支持度相同的超图，false时不必再处理其余的图
+	 */
+	public boolean addGraph(CsrGraph graph, List<Embedding> embeddings) {
+		this.graph = graph;
+		this.graphDone = false;
+		if (candidates == null) {
+			firstGraphKeys = new HashSet<>();
+		} else {
+			found = new boolean[candidates.length];
+			foundNum = 0;
+		}
+		this.g2s = new int[graph.nodeNum()];
+		for (int i = 0; i < g2s.length; i++) {
+			g2s[i] = -1;
+		}
+
+		if (embeddings != null) {
+			for (Embedding embedding : embeddings) {
+				if (graphDone) {
+					break;
+				}
+				s2g = embedding.s2g;
+				for (int u = 0; u < next; u++) {
+					g2s[s2g[u]] = u;
+				}
+				collectExtensions();
+				for (int u = 0; u < next; u++) {
+					g2s[s2g[u]] = -1;
+				}
+			}
+		} else {
+			s2g = new int[next];
+			Edge first = edgeSeq.get(0);
+			for (int i = 0; i < graph.nodeNum() && !graphDone; i++) {
+				if (graph.nodeLabels[i] != first.x) {
+					continue;
+				}
+				g2s[i] = 0;
+				s2g[0] = i;
+				dfsSearchEdge(0);
+				g2s[i] = -1;
+			}
+		}
+
+		// 候选边只保留此图中也出现过的
+		if (candidates == null) {
+			candidates = toSortedArray(firstGraphKeys);
+			firstGraphKeys = null;
+		} else if (foundNum < candidates.length) {
+			candidates = retain(candidates, found, foundNum);
+		}
+		if (equivalents == null) {
+			// 图中没有找到嵌入
+			equivalents = new long[0];
+		}
+		this.graph = null;
+		return candidates.length > 0;
+	}
+
+	/**
+	 * 在当前图中深度优先寻找编码的所有嵌入
+	 *
+	 * @param currentPosition
+	 *            当前找到的位置
+	 */
+	private void dfsSearchEdge(int currentPosition) {
+		if (currentPosition >= edgeSeq.size()) {
+			collectExtensions();
+			return;
+		}
+
+		Edge e = edgeSeq.get(currentPosition);
+		int gId1 = s2g[e.ix];
+		for (int i = graph.offsets[gId1]; i < graph.offsets[gId1 + 1] && !graphDone; i++) {
+			int gId2 = graph.neighbors[i];
+			if (graph.edgeLabels[i] != e.a || graph.nodeLabels[gId2] != e.y) {
+				continue;
+			}
+
+			if (e.ix < e.iy) {
+				// 前向边连向的点必须是没有设置过的
+				if (g2s[gId2] != -1) {
+					continue;
+				}
+				g2s[gId2] = e.iy;
+				s2g[e.iy] = gId2;
+				dfsSearchEdge(currentPosition + 1);
+				g2s[gId2] = -1;
+			} else if (s2g[e.iy] == gId2) {
+				// 后向边连向的点必须已经对应
+				dfsSearchEdge(currentPosition + 1);
+			}
+		}
+	}
+
+	/**
+	 * 记录当前嵌入上能多加的所有边，处理第一个图之后只记录候选边
+	 */
+	private void collectExtensions() {
+		// 第一个嵌入上的等价出现边先放入集合，之后的嵌入只在已有的边中标记
+		HashSet<Long> firstEquivalents = equivalents == null ? new HashSet<Long>() : null;
+		if (equivalentSeen != null) {
+			Arrays.fill(equivalentSeen, false);
+		}
+
+		for (int u = 0; u < next; u++) {
+			int gId = s2g[u];
+			for (int i = graph.offsets[gId]; i < graph.offsets[gId + 1]; i++) {
+				int gId2 = graph.neighbors[i];
+				int v = g2s[gId2];
+				long key;
+				if (v < 0) {
+					// 连向新点的边
+					key = ChildEdgeMap.toKey(u, next, graph.nodeLabels[gId],
+							graph.edgeLabels[i], graph.nodeLabels[gId2]);
+				} else if (v < u && !codeEdge[u][v]) {
+					// 连接已有两点的边，每对点只从id大的一端记录一次
+					key = ChildEdgeMap.toKey(u, v, graph.nodeLabels[gId],
+							graph.edgeLabels[i], graph.nodeLabels[gId2]);
+				} else {
+					continue;
+				}
+
+				if (candidates == null) {
+					firstGraphKeys.add(key);
+				} else {
+					int index = Arrays.binarySearch(candidates, key);
+					if (index < 0) {
+						continue;
+					}
+					if (!found[index]) {
+						found[index] = true;
+						foundNum++;
+					}
+				}
+				if (v < 0) {
+					continue;
+				}
+				if (firstEquivalents != null) {
+					firstEquivalents.add(key);
+				} else {
+					int index = Arrays.binarySearch(equivalents, key);
+					if (index >= 0) {
+						equivalentSeen[index] = true;
+					}
+				}
+			}
+		}
+
+		if (firstEquivalents != null) {
+			equivalents = toSortedArray(firstEquivalents);
+			equivalentSeen = new boolean[equivalents.length];
+		} else {
+			int seenNum = 0;
+			for (boolean seen : equivalentSeen) {
+				if (seen) {
+					seenNum++;
+				}
+			}
+			if (seenNum < equivalents.length) {
+				equivalents = retain(equivalents, equivalentSeen, seenNum);
+				equivalentSeen = new boolean[seenNum];
+			}
+		}
+		// 没有等价出现的边，且之前的支持图都有的边在此图中都已出现时，不必再找其余的嵌入
+		graphDone = candidates != null && equivalents.length == 0
+				&& foundNum == candidates.length;
+	}
+
+	private static long[] toSortedArray(HashSet<Long> keys) {
+		long[] array = new long[keys.size()];
+		int i = 0;
+		for (long key : keys) {
+			array[i++] = key;
+		}
+		Arrays.sort(array);
+		return array;
+	}
+
+	/**
+	 * 保留数组中标记过的元素，保持原有次序
+	 */
+	private static long[] retain(long[] keys, boolean[] marked, int markedNum) {
+		long[] kept = new long[markedNum];
+		int count = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (marked[i]) {
+				kept[count++] = keys[i];
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * 是否不存在支持度相同的超图，需在处理完全部支持图之后调用
+	 */
+	public boolean isClosed() {
+		return candidates == null || candidates.length == 0;
+	}
+
+	/**
+	 * 根据等价出现的边计算孩子子树中还可能有闭合子图的部分。
+	 *
+	 * 设等价出现的边为(u, v)，子孙子图的每个嵌入都含有编码的一个嵌入，因此都能加上这条边，
+	 * 不含这条边的子孙子图都不是闭合的。只有从最右点连向最右路径上的点的后向边能在之后加入，
+	 * 并且后向边按另一端的id递增加入，所以只有另一端id不超过v的后向孩子边的子树需要继续挖掘。
+	 *
+	 * @return 孩子边中后向边另一端id的上限，-1为不必拓展任何孩子边，Integer.MAX_VALUE为不限制
+	 */
+	public int getChildBackwardLimit() {
+		int limit = Integer.MAX_VALUE;
+		if (equivalents == null) {
+			return limit;
+		}
+
+		int r = next - 1;
+		for (long key : equivalents) {
+			Edge e = ChildEdgeMap.toEdge(key);
+			if (e.ix != r || !isOnRightMostPath(e.iy)) {
+				// 这条边在子树中再也不能加入
+				return -1;
+			}
+			limit = Math.min(limit, e.iy);
+		}
+		return limit;
+	}
+
+	private boolean isOnRightMostPath(int id) {
+		for (int u = next - 1; u >= 0; u = parent[u]) {
+			if (u == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,31 @@
+package DataMining;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 只统计频繁子图个数的结果接收类，用于基准测试
+ * 
+ * @author cuilijuan
+ * 
+ */
+public class CountResultSink implements ResultSink {
+	// 接收到的子图个数
+	private AtomicLong count = new AtomicLong();
+
+	@Override
+	public void accept(GraphCode gc, int nodeNum, double weight) {
+		count.incrementAndGet();
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+}
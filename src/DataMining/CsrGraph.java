@@ -0,0 +1,202 @@
+package DataMining;
+
+/**
+ * 压缩稀疏行(CSR)存储的不可变图结构，点id为u的相邻点和边标号存放在
+ * neighbors和edgeLabels的[offsets[u], offsets[u + 1])区间中
+ *
+ * @author cuilijuan
+ *
+ */
+public class CsrGraph {
+	// 图节点标号组
+	final int[] nodeLabels;
+	// 每个点的相邻点在neighbors中的起始位置，最后一位为总长度
+	final int[] offsets;
+	// 所有点的相邻点id
+	final int[] neighbors;
+	// 与neighbors对应的边标号
+	final int[] edgeLabels;
+
+	CsrGraph(int[] nodeLabels, int[] offsets, int[] neighbors, int[] edgeLabels) {
+		this.nodeLabels = nodeLabels;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		this.edgeLabels = edgeLabels;
+	}
+
+	/**
+	 * 根据图数据构造一个图，只保留可用的点和边
+	 *
+	 * @param gd
+	 *            图数据
+	 * @return
+	 */
+	public static CsrGraph constructGraph(GraphData gd) {
+		int nodeNum = 0;
+		for (int i = 0; i < gd.getNodeVisibles().size(); i++) {
+			if (gd.getNodeVisibles().get(i)) {
+				nodeNum++;
+			}
+		}
+
+		int[] nodeLabels = new int[nodeNum];
+		nodeNum = 0;
+		for (int i = 0; i < gd.getNodeVisibles().size(); i++) {
+			if (gd.getNodeVisibles().get(i)) {
+				nodeLabels[nodeNum++] = gd.getNodeLabels().get(i);
+			}
+		}
+
+		int edgeNum = gd.getEdgeLabels().size();
+		int[] edgeX = new int[edgeNum];
+		int[] edgeY = new int[edgeNum];
+		int[] labels = new int[edgeNum];
+		int count = 0;
+		for (int i = 0; i < edgeNum; i++) {
+			if (gd.getEdgeVisibles().get(i)) {
+				edgeX[count] = gd.getEdgeX().get(i);
+				edgeY[count] = gd.getEdgeY().get(i);
+				labels[count] = gd.getEdgeLabels().get(i);
+				count++;
+			}
+		}
+
+		return build(nodeLabels, edgeX, edgeY, labels, count);
+	}
+
+	/**
+	 * 移除标号不频繁的点和边，以及端点被移除的边，剩下的点按原有次序重新编号
+	 *
+	 * @param keepNodeLabel
+	 *            点标号是否保留
+	 * @param keepEdgeLabel
+	 *            边标号是否保留
+	 * @return 移除后的图，没有需要移除的点边时返回自身
+	 */
+	public CsrGraph prune(boolean[] keepNodeLabel, boolean[] keepEdgeLabel) {
+		int nodeNum = nodeLabels.length;
+		// 旧的id对新id号的映射，-1代表此点被移除
+		int[] oldId2New = new int[nodeNum];
+		int count = 0;
+		for (int i = 0; i < nodeNum; i++) {
+			oldId2New[i] = keepNodeLabel[nodeLabels[i]] ? count++ : -1;
+		}
+
+		int[] newOffsets = new int[count + 1];
+		int size = 0;
+		for (int i = 0; i < nodeNum; i++) {
+			if (oldId2New[i] < 0) {
+				continue;
+			}
+			for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+				if (keepEdgeLabel[edgeLabels[p]] && oldId2New[neighbors[p]] >= 0) {
+					size++;
+				}
+			}
+			newOffsets[oldId2New[i] + 1] = size;
+		}
+		if (count == nodeNum && size == neighbors.length) {
+			return this;
+		}
+
+		int[] newNodeLabels = new int[count];
+		int[] newNeighbors = new int[size];
+		int[] newEdgeLabels = new int[size];
+		size = 0;
+		for (int i = 0; i < nodeNum; i++) {
+			if (oldId2New[i] < 0) {
+				continue;
+			}
+			newNodeLabels[oldId2New[i]] = nodeLabels[i];
+			for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+				if (keepEdgeLabel[edgeLabels[p]] && oldId2New[neighbors[p]] >= 0) {
+					newNeighbors[size] = oldId2New[neighbors[p]];
+					newEdgeLabels[size++] = edgeLabels[p];
+				}
+			}
+		}
+
+		return new CsrGraph(newNodeLabels, newOffsets, newNeighbors, newEdgeLabels);
+	}
+
+	/**
+	 * 由无向边列表构造CSR结构，每个点的相邻点按边的加入次序排列
+	 */
+	static CsrGraph build(int[] nodeLabels, int[] edgeX, int[] edgeY,
+			int[] labels, int edgeNum) {
+		int nodeNum = nodeLabels.length;
+		int[] offsets = new int[nodeNum + 1];
+		for (int i = 0; i < edgeNum; i++) {
+			offsets[edgeX[i] + 1]++;
+			offsets[edgeY[i] + 1]++;
+		}
+		for (int i = 0; i < nodeNum; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		int[] neighbors = new int[2 * edgeNum];
+		int[] edgeLabels = new int[2 * edgeNum];
+		// 每个点下一个相邻点的写入位置
+		int[] fill = new int[nodeNum];
+		System.arraycopy(offsets, 0, fill, 0, nodeNum);
+		for (int i = 0; i < edgeNum; i++) {
+			neighbors[fill[edgeX[i]]] = edgeY[i];
+			edgeLabels[fill[edgeX[i]]++] = labels[i];
+			neighbors[fill[edgeY[i]]] = edgeX[i];
+			edgeLabels[fill[edgeY[i]]++] = labels[i];
+		}
+
+		return new CsrGraph(nodeLabels, offsets, neighbors, edgeLabels);
+	}
+
+	/**
+	 * 图中点的个数
+	 */
+	public int nodeNum() {
+		return nodeLabels.length;
+	}
+
+	/**
+	 * 图中边的个数
+	 */
+	public int edgeNum() {
+		return neighbors.length / 2;
+	}
+
+	/**
+	 * 点的度数
+	 */
+	public int degree(int u) {
+		return offsets[u + 1] - offsets[u];
+	}
+
+	public int getNodeLabel(int u) {
+		return nodeLabels[u];
+	}
+
+	/**
+	 * 判断图中是否存在某条边
+	 *
+	 * @param x
+	 *            边的一端的节点标号
+	 * @param a
+	 *            边的标号
+	 * @param y
+	 *            边的另外一端节点标号
+	 * @return
+	 */
+	public boolean hasEdge(int x, int a, int y) {
+		for (int i = 0; i < nodeLabels.length; i++) {
+			if (nodeLabels[i] != x) {
+				continue;
+			}
+			for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+				if (edgeLabels[p] == a && nodeLabels[neighbors[p]] == y) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
@@ -1,11 +1,13 @@
 package DataMining;
 
 import java.util.ArrayList;
-import java.util.Stack;
 
 /**
  * 图编码深度优先搜索类，判断当前编码在给定图中是否为最小编码
  * 
+ * 对象可重复使用，所有搜索状态存放在预先分配的数组中，只在编码变大时扩容，
+ * 判断过程中不再新建对象。同一对象不能被多个线程同时使用。
+ * 
  * @author cuilijuan
  * 
  */
@@ -14,135 +16,243 @@ public class DFSCodeTraveler {
 	boolean isMin;
 	// 当前挖掘的图的边五元组编码组
 	ArrayList<Edge> edgeSeqs;
-	// 当前的图结构
-	Graph graph;
+	// 编码所构成的图的点数
+	int nodeNum;
+	// 编码所构成的图，以CSR方式存放：图节点标号组
+	int[] nodeLabels;
+	// 每个点的相邻点在neighbors中的起始位置
+	int[] offsets;
+	// 所有点的相邻点id
+	int[] neighbors;
+	// 与neighbors对应的边标号
+	int[] edgeLabels;
 	// 图节点id对应的边五元组中的id标识
 	int[] g2s;
-	// 代表图中的边是否被用到了
-	boolean f[][];
+	// 五元组中的id标识对应的图节点id
+	int[] s2g;
+	// 编码中每个id标识在DFS树中的父节点标识，用于沿最右路径回溯，根为-1
+	int[] parent;
+	// 已被用到的边的两个端点，按搜索深度入栈
+	int[] usedX;
+	int[] usedY;
+
+	public DFSCodeTraveler() {
+		nodeLabels = new int[0];
+		offsets = new int[1];
+		neighbors = new int[0];
+		edgeLabels = new int[0];
+		g2s = new int[0];
+		s2g = new int[0];
+		parent = new int[0];
+		usedX = new int[0];
+		usedY = new int[0];
+	}
 
-	public DFSCodeTraveler(ArrayList<Edge> edgeSeqs, Graph graph) {
+	/**
+	 * 判断编码是否为其所构成的图的最小编码
+	 * 
+	 * @param edgeSeqs
+	 *            边五元组编码组
+	 * @param nodeNum
+	 *            图所含的点的个数
+	 * @return 是否为最小编码
+	 */
+	public boolean traveler(ArrayList<Edge> edgeSeqs, int nodeNum) {
 		this.isMin = true;
 		this.edgeSeqs = edgeSeqs;
-		this.graph = graph;
-	}
+		this.nodeNum = nodeNum;
+		buildGraph();
 
-	public void traveler() {
-		int nodeLNums = graph.nodeLabels.size();
-		g2s = new int[nodeLNums];
-		for (int i = 0; i < nodeLNums; i++) {
+		for (int i = 0; i < nodeNum; i++) {
 			// 设置-1代表此点还未被计入编码
 			g2s[i] = -1;
+			s2g[i] = -1;
+			parent[i] = -1;
 		}
-
-		f = new boolean[nodeLNums][nodeLNums];
-		for (int i = 0; i < nodeLNums; i++) {
-			for (int j = 0; j < nodeLNums; j++) {
-				f[i][j] = false;
+		// 编码中的前向边构成DFS树
+		for (Edge e : edgeSeqs) {
+			if (e.ix < e.iy) {
+				parent[e.iy] = e.ix;
 			}
 		}
 
-		// 从每个点开始寻找最小编码五元组
-		for (int i = 0; i < nodeLNums; i++) {
+		// 从每条边的每个方向开始寻找最小编码五元组
+		Edge first = edgeSeqs.get(0);
+		for (int x = 0; x < nodeNum; x++) {
 			//对选择的第一个点的标号做判断
-			if(graph.getNodeLabels().get(i) > edgeSeqs.get(0).x){
+			if (nodeLabels[x] > first.x) {
 				continue;
 			}
-			// 五元组id从0开始设置
-			g2s[i] = 0;
-
-			Stack<Integer> s = new Stack<>();
-			s.push(i);
-			dfsSearch(s, 0, 1);
-			if (!isMin) {
-				return;
+			for (int i = offsets[x]; i < offsets[x + 1]; i++) {
+				int y = neighbors[i];
+				int compareResult = Edge.compare(0, 1, nodeLabels[x],
+						edgeLabels[i], nodeLabels[y], first);
+				if (compareResult == Edge.EDGE_SMALLER) {
+					isMin = false;
+					return isMin;
+				} else if (compareResult == Edge.EDGE_LARGER) {
+					continue;
+				}
+
+				// 五元组id从0开始设置
+				map(x, 0);
+				map(y, 1);
+				usedX[0] = x;
+				usedY[0] = y;
+				dfsSearch(1, 2);
+				unmap(x, 0);
+				unmap(y, 1);
+				if (!isMin) {
+					return isMin;
+				}
 			}
-			g2s[i] = -1;
 		}
+
+		return isMin;
+	}
+
+	/**
+	 * 在复用的数组中根据编码构造图，每个点的相邻点按边的加入次序排列
+	 */
+	private void buildGraph() {
+		int edgeNum = edgeSeqs.size();
+		if (nodeLabels.length < nodeNum) {
+			nodeLabels = new int[nodeNum];
+			offsets = new int[nodeNum + 1];
+			g2s = new int[nodeNum];
+			s2g = new int[nodeNum];
+			parent = new int[nodeNum];
+		}
+		if (neighbors.length < 2 * edgeNum) {
+			neighbors = new int[2 * edgeNum];
+			edgeLabels = new int[2 * edgeNum];
+			usedX = new int[edgeNum];
+			usedY = new int[edgeNum];
+		}
+
+		for (int i = 0; i <= nodeNum; i++) {
+			offsets[i] = 0;
+		}
+		for (int i = 0; i < nodeNum; i++) {
+			nodeLabels[i] = -1;
+		}
+		for (int i = 0; i < edgeNum; i++) {
+			Edge e = edgeSeqs.get(i);
+			nodeLabels[e.ix] = e.x;
+			nodeLabels[e.iy] = e.y;
+			offsets[e.ix + 1]++;
+			offsets[e.iy + 1]++;
+		}
+		for (int i = 0; i < nodeNum; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		// 借用g2s作为每个点下一个相邻点的写入位置，之后会被重新初始化
+		for (int i = 0; i < nodeNum; i++) {
+			g2s[i] = offsets[i];
+		}
+		for (int i = 0; i < edgeNum; i++) {
+			Edge e = edgeSeqs.get(i);
+			neighbors[g2s[e.ix]] = e.iy;
+			edgeLabels[g2s[e.ix]++] = e.a;
+			neighbors[g2s[e.iy]] = e.ix;
+			edgeLabels[g2s[e.iy]++] = e.a;
+		}
+	}
+
+	/**
+	 * 判断这2个点所构成的边是否已经被用过
+	 * 
+	 * @param depth
+	 *            当前已用到的边数
+	 */
+	private boolean isUsed(int x, int y, int depth) {
+		for (int i = 0; i < depth; i++) {
+			if ((usedX[i] == x && usedY[i] == y)
+					|| (usedX[i] == y && usedY[i] == x)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void map(int gId, int sId) {
+		g2s[gId] = sId;
+		s2g[sId] = gId;
+	}
+
+	private void unmap(int gId, int sId) {
+		g2s[gId] = -1;
+		s2g[sId] = -1;
 	}
 
 	/**
-	 * 深度优先搜索最小编码组
+	 * 深度优先搜索最小编码组，前面的边都与编码相同，在最右路径上拓展一条边与编码中
+	 * 对应位置的边比较，出现更小的边说明编码不是最小的
 	 * 
-	 * @param stack
-	 *            加入的节点id栈
 	 * @param currentPosition
 	 *            当前进行的层次，代表找到的第几条边
 	 * @param next
-	 *            五元组边下一条边的点的临时标识
+	 *            五元组边下一条边的点的临时标识，next - 1即为最右点
 	 */
-	private void dfsSearch(Stack<Integer> stack, int currentPosition, int next) {
+	private void dfsSearch(int currentPosition, int next) {
 		if (currentPosition >= edgeSeqs.size()) {
-			stack.pop();
 			// 比较到底了则返回
 			return;
 		}
 
-		while (!stack.isEmpty()) {
-			int x = stack.pop();
-			for (int i = 0; i < graph.edgeNexts.get(x).size(); i++) {
-				// 从此id节点所连接的点中选取1个点作为下一个点
-				int y = graph.edgeNexts.get(x).get(i);
-				// 如果这2个点所构成的边已经被用过，则继续
-				if (f[x][y] || f[y][x]) {
+		Edge current = edgeSeqs.get(currentPosition);
+		int r = next - 1;
+		int x = s2g[r];
+		// 后向边，从最右点连向最右路径上的点
+		for (int u = parent[r]; u >= 0; u = parent[u]) {
+			int y = s2g[u];
+			for (int i = offsets[x]; i < offsets[x + 1]; i++) {
+				if (neighbors[i] != y || isUsed(x, y, currentPosition)) {
 					continue;
 				}
+				// 与相应位置的边做比较，如果不是最小则失败
+				int compareResult = Edge.compare(r, u, nodeLabels[x],
+						edgeLabels[i], nodeLabels[y], current);
+				if (compareResult == Edge.EDGE_SMALLER) {
+					isMin = false;
+					return;
+				} else if (compareResult == Edge.EDGE_LARGER) {
+					continue;
+				}
+				// 如果相等则继续比
+				usedX[currentPosition] = x;
+				usedY[currentPosition] = y;
+				dfsSearch(currentPosition + 1, next);
+				if (!isMin) {
+					return;
+				}
+			}
+		}
 
-				// 如果y这个点未被用过
-				if (g2s[y] < 0) {
-					// 新建这条边五元组
-					Edge e = new Edge(g2s[x], next, graph.nodeLabels.get(x),
-							graph.edgeLabels.get(x).get(i),
-							graph.nodeLabels.get(y));
-
-					// 与相应位置的边做比较，如果不是最小则失败
-					int compareResult = e.compareWith(edgeSeqs
-							.get(currentPosition));
-					if (compareResult == Edge.EDGE_SMALLER) {
-						isMin = false;
-						return;
-					} else if (compareResult == Edge.EDGE_LARGER) {
-						continue;
-					}
-					// 如果相等则继续比
-					g2s[y] = next;
-					f[x][y] = true;
-					f[y][x] = true;
-					stack.push(y);
-					dfsSearch(stack, currentPosition + 1, next + 1);
-					if (!isMin) {
-						return;
-					}
-					f[x][y] = false;
-					f[y][x] = false;
-					g2s[y] = -1;
-				} else {
-					// 这个点已经被用过的时候，不需要再设置五元组id标识
-					// 新建这条边五元组
-					Edge e = new Edge(g2s[x], g2s[y], graph.nodeLabels.get(x),
-							graph.edgeLabels.get(x).get(i),
-							graph.nodeLabels.get(y));
-
-					// 与相应位置的边做比较，如果不是最小则失败
-					int compareResult = e.compareWith(edgeSeqs
-							.get(currentPosition));
-					if (compareResult == Edge.EDGE_SMALLER) {
-						isMin = false;
-						return;
-					} else if (compareResult == Edge.EDGE_LARGER) {
-						continue;
-					}
-					// 如果相等则继续比
-					g2s[y] = next;
-					f[x][y] = true;
-					f[y][x] = true;
-					stack.push(y);
-					dfsSearch(stack, currentPosition + 1, next);
-					if (!isMin) {
-						return;
-					}
-					f[x][y] = false;
-					f[y][x] = false;
+		// 前向边，从最右路径上的点连向新的点
+		for (int u = r; u >= 0; u = parent[u]) {
+			int gu = s2g[u];
+			for (int i = offsets[gu]; i < offsets[gu + 1]; i++) {
+				int y = neighbors[i];
+				if (g2s[y] >= 0) {
+					continue;
+				}
+				int compareResult = Edge.compare(u, next, nodeLabels[gu],
+						edgeLabels[i], nodeLabels[y], current);
+				if (compareResult == Edge.EDGE_SMALLER) {
+					isMin = false;
+					return;
+				} else if (compareResult == Edge.EDGE_LARGER) {
+					continue;
+				}
+				map(y, next);
+				usedX[currentPosition] = gu;
+				usedY[currentPosition] = y;
+				dfsSearch(currentPosition + 1, next + 1);
+				unmap(y, next);
+				if (!isMin) {
+					return;
 				}
 			}
 		}
@@ -38,25 +38,48 @@ public class Edge {
 	 * @return
 	 */
 	public int compareWith(Edge e) {
-		int result = EDGE_EQUAL;
-		int[] array1 = new int[] { ix, iy, x, y, a };
-		int[] array2 = new int[] { e.ix, e.iy, e.x, e.y, e.a };
-
-		// 按照ix, iy,x,y,a的次序依次比较
-		for (int i = 0; i < array1.length; i++) {
-			if (array1[i] < array2[i]) {
-				result = EDGE_SMALLER;
-				break;
-			} else if (array1[i] > array2[i]) {
-				result = EDGE_LARGER;
-				break;
+		return compare(ix, iy, x, a, y, e);
+	}
+
+	/**
+	 * 以五元组各个分量表示的边与给定的边的大小比较关系，不需要新建边对象
+	 * 
+	 * 采用gSpan的DFS字典序：先比较点的id标识，ix < iy为前向边，ix > iy为后向边。
+	 * 两条前向边iy小的为小，iy相同时ix大的为小；两条后向边ix小的为小，ix相同时iy小的为小；
+	 * 后向边(i1, j1)小于前向边(i2, j2)当且仅当i1 < j2；前向边(i1, j1)小于后向边(i2, j2)当且仅当j1 <= i2。
+	 * id标识都相同时再按x, y, a的次序比较标号。
+	 * 
+	 * @return
+	 */
+	public static int compare(int ix, int iy, int x, int a, int y, Edge e) {
+		if (ix != e.ix || iy != e.iy) {
+			boolean forward1 = ix < iy;
+			boolean forward2 = e.ix < e.iy;
+			boolean smaller;
+			if (forward1 && forward2) {
+				smaller = iy < e.iy || (iy == e.iy && ix > e.ix);
+			} else if (!forward1 && !forward2) {
+				smaller = ix < e.ix || (ix == e.ix && iy < e.iy);
+			} else if (!forward1) {
+				smaller = ix < e.iy;
 			} else {
-				// 如果相等，继续比较下一个
-				continue;
+				smaller = iy <= e.ix;
 			}
+			return smaller ? EDGE_SMALLER : EDGE_LARGER;
+		}
+
+		// id标识相同时按照x,y,a的次序依次比较，如果相等，继续比较下一个
+		if (x != e.x) {
+			return x < e.x ? EDGE_SMALLER : EDGE_LARGER;
+		}
+		if (y != e.y) {
+			return y < e.y ? EDGE_SMALLER : EDGE_LARGER;
+		}
+		if (a != e.a) {
+			return a < e.a ? EDGE_SMALLER : EDGE_LARGER;
 		}
 
-		return result;
+		return EDGE_EQUAL;
 	}
 
 }
@@ -0,0 +1,149 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 边标号三元组倒排索引，记录每种(x, a, y)边出现在哪些图中
+ *
+ * @author cuilijuan
+ *
+ */
+public class EdgeIndex {
+	// 三元组中每个标号所占的位数
+	private static final int LABEL_BITS = 21;
+	// 三元组编码对含有此边的图id集合
+	private HashMap<Long, GraphIdSet> postings;
+	// 出现过的三元组编码，升序排列即为按x, a, y的次序
+	private long[] keys;
+	// keys中每个三元组对应的图id集合
+	private GraphIdSet[] keyIds;
+	// 不含任何图的集合
+	private GraphIdSet empty;
+
+	/**
+	 * 一次遍历所有图构造索引，边的两个方向都会被记录
+	 *
+	 * @param graphs
+	 *            图集，下标即为图id
+	 */
+	public EdgeIndex(ArrayList<CsrGraph> graphs) {
+		HashMap<Long, ArrayList<Integer>> lists = new HashMap<>();
+		ArrayList<Integer> ids;
+
+		for (int gId = 0; gId < graphs.size(); gId++) {
+			CsrGraph graph = graphs.get(gId);
+			for (int i = 0; i < graph.nodeNum(); i++) {
+				for (int j = graph.offsets[i]; j < graph.offsets[i + 1]; j++) {
+					long key = toKey(graph.nodeLabels[i], graph.edgeLabels[j],
+							graph.nodeLabels[graph.neighbors[j]]);
+					ids = lists.get(key);
+					if (ids == null) {
+						ids = new ArrayList<>();
+						lists.put(key, ids);
+					}
+					// 图id递增加入，同一个图只记录一次
+					if (ids.isEmpty() || ids.get(ids.size() - 1) != gId) {
+						ids.add(gId);
+					}
+				}
+			}
+		}
+
+		postings = new HashMap<>(lists.size() * 2);
+		for (Map.Entry<Long, ArrayList<Integer>> entry : lists.entrySet()) {
+			ids = entry.getValue();
+			int[] array = new int[ids.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = ids.get(i);
+			}
+			postings.put(entry.getKey(), GraphIdSet.of(array, array.length, graphs.size()));
+		}
+		empty = GraphIdSet.empty(graphs.size());
+
+		keys = new long[postings.size()];
+		int n = 0;
+		for (long key : postings.keySet()) {
+			keys[n++] = key;
+		}
+		Arrays.sort(keys);
+		keyIds = new GraphIdSet[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			keyIds[i] = postings.get(keys[i]);
+		}
+	}
+
+	private static long toKey(int x, int a, int y) {
+		return ((long) x << (2 * LABEL_BITS)) | ((long) a << LABEL_BITS) | y;
+	}
+
+	/**
+	 * 获取含有某条边的图id集合
+	 *
+	 * @param x
+	 *            边的一端的节点标号
+	 * @param a
+	 *            边的标号
+	 * @param y
+	 *            边的另外一端节点标号
+	 * @return 图id集合
+	 */
+	public GraphIdSet getGraphIds(int x, int a, int y) {
+		if (x < 0 || a < 0 || y < 0) {
+			return empty;
+		}
+		GraphIdSet ids = postings.get(toKey(x, a, y));
+		return ids == null ? empty : ids;
+	}
+
+	/**
+	 * 出现过的不同三元组的个数，下标n的三元组按x, a, y的次序排在第n位
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * 第n个三元组的一端的节点标号
+	 */
+	public int x(int n) {
+		return (int) (keys[n] >>> (2 * LABEL_BITS));
+	}
+
+	/**
+	 * 第n个三元组的边标号
+	 */
+	public int a(int n) {
+		return (int) (keys[n] >>> LABEL_BITS) & ((1 << LABEL_BITS) - 1);
+	}
+
+	/**
+	 * 第n个三元组的另外一端节点标号
+	 */
+	public int y(int n) {
+		return (int) keys[n] & ((1 << LABEL_BITS) - 1);
+	}
+
+	/**
+	 * 含有第n个三元组的图id集合
+	 */
+	public GraphIdSet graphIdsAt(int n) {
+		return keyIds[n];
+	}
+
+	/**
+	 * 含有某条边的图的个数
+	 */
+	public int count(int x, int a, int y) {
+		return getGraphIds(x, a, y).cardinality();
+	}
+
+	/**
+	 * 判断id为gId的图中是否存在某条边
+	 */
+	public boolean contains(int gId, int x, int a, int y) {
+		return getGraphIds(x, a, y).contains(gId);
+	}
+}
@@ -0,0 +1,27 @@
+package DataMining;
+
+/**
+ * 图编码在某个图中的一个嵌入（投影），记录五元组id标识对图的点id的映射
+ * 
+ * @author cuilijuan
+ * 
+ */
+public class Embedding {
+	// 所在图的id
+	int gId;
+	// 五元组id标识对图的点id的映射，-1代表此id标识未被映射
+	int[] s2g;
+
+	public Embedding(int gId, int[] s2g) {
+		this.gId = gId;
+		this.s2g = s2g;
+	}
+
+	public int getGId() {
+		return gId;
+	}
+
+	public int[] getS2g() {
+		return s2g;
+	}
+}
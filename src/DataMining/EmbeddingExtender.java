@@ -0,0 +1,174 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * 嵌入拓展类，在父编码已有嵌入的基础上沿最右路径拓展一条边，
+ * 不必像SubChildTraveler那样在图中重新搜索整个编码
+ * 
+ * @author cuilijuan
+ * 
+ */
+public class EmbeddingExtender {
+	// 当前的五元组边
+	ArrayList<Edge> edgeSeq;
+	// 当前的图
+	CsrGraph graph;
+	// 结果数据，孩子边
+	ArrayList<Edge> childEdge;
+	// 孩子边对应的嵌入，与childEdge一一对应
+	ArrayList<Embedding> childEmbedding;
+	// 编码中每个id标识在DFS树中的父节点标识，沿父节点从最右点回溯即为最右路径，根为-1
+	int[] parent;
+	// 下一个五元组的id，即编码所含的点的个数
+	int next;
+	// 图的点id对五元组id标识的映射
+	int[] g2s;
+
+	public EmbeddingExtender(ArrayList<Edge> edgeSeq, CsrGraph graph) {
+		this.edgeSeq = edgeSeq;
+		this.graph = graph;
+		this.childEdge = new ArrayList<>();
+		this.childEmbedding = new ArrayList<>();
+		this.next = 0;
+		for (Edge e : edgeSeq) {
+			next = Math.max(next, Math.max(e.ix, e.iy) + 1);
+		}
+
+		// 编码中的前向边构成DFS树
+		parent = new int[next];
+		for (int i = 0; i < next; i++) {
+			parent[i] = -1;
+		}
+		for (Edge e : edgeSeq) {
+			if (e.ix < e.iy) {
+				parent[e.iy] = e.ix;
+			}
+		}
+
+		g2s = new int[graph.nodeNum()];
+		for (int i = 0; i < g2s.length; i++) {
+			g2s[i] = -1;
+		}
+	}
+
+	/**
+	 * 找出单边编码在图中的所有嵌入
+	 * 
+	 * @param edge
+	 *            第一条边五元组
+	 * @param gId
+	 *            图的id
+	 * @param graph
+	 *            图
+	 * @param embeddings
+	 *            找到的嵌入加入此集合
+	 */
+	public static void seedEmbeddings(Edge edge, int gId, CsrGraph graph,
+			ArrayList<Embedding> embeddings) {
+		for (int i = 0; i < graph.nodeNum(); i++) {
+			if (graph.nodeLabels[i] != edge.x) {
+				continue;
+			}
+			for (int j = graph.offsets[i]; j < graph.offsets[i + 1]; j++) {
+				int tempId = graph.neighbors[j];
+				if (graph.edgeLabels[j] != edge.a
+						|| graph.nodeLabels[tempId] != edge.y
+						|| tempId == i) {
+					continue;
+				}
+				embeddings.add(new Embedding(gId, new int[] { i, tempId }));
+			}
+		}
+	}
+
+	/**
+	 * 在某个嵌入的最右路径上寻找可能的孩子边，并生成孩子边的嵌入
+	 * 
+	 * @param embedding
+	 *            当前编码在此图中的嵌入
+	 */
+	public void extend(Embedding embedding) {
+		int[] s2g = embedding.s2g;
+		for (int i = 0; i < s2g.length; i++) {
+			if (s2g[i] >= 0) {
+				g2s[s2g[i]] = i;
+			}
+		}
+
+		// 后向边，从最右点连向最右路径上的点
+		int r = next - 1;
+		int gIdR = s2g[r];
+		for (int u = parent[r]; u >= 0; u = parent[u]) {
+			int gId2 = s2g[u];
+			for (int i = graph.offsets[gIdR]; i < graph.offsets[gIdR + 1]; i++) {
+				// 如果这条边已经被用过
+				if (graph.neighbors[i] != gId2 || isEdgeUsed(s2g, gIdR, gId2)) {
+					continue;
+				}
+				addChild(new Edge(r, u, graph.nodeLabels[gIdR], graph.edgeLabels[i],
+						graph.nodeLabels[gId2]), embedding.gId, s2g);
+			}
+		}
+
+		// 前向边，从最右路径上的点连向新的点
+		for (int u = r; u >= 0; u = parent[u]) {
+			int gId = s2g[u];
+			for (int i = graph.offsets[gId]; i < graph.offsets[gId + 1]; i++) {
+				int gId2 = graph.neighbors[i];
+				if (g2s[gId2] >= 0) {
+					continue;
+				}
+				int[] nS2g = Arrays.copyOf(s2g, next + 1);
+				nS2g[next] = gId2;
+				addChild(new Edge(u, next, graph.nodeLabels[gId],
+						graph.edgeLabels[i], graph.nodeLabels[gId2]),
+						embedding.gId, nS2g);
+			}
+		}
+
+		for (int i = 0; i < s2g.length; i++) {
+			if (s2g[i] >= 0) {
+				g2s[s2g[i]] = -1;
+			}
+		}
+	}
+
+	/**
+	 * 判断图中的边是否已经被编码中的边用到
+	 */
+	private boolean isEdgeUsed(int[] s2g, int gId1, int gId2) {
+		for (Edge e : edgeSeq) {
+			int u = s2g[e.ix];
+			int v = s2g[e.iy];
+			if ((u == gId1 && v == gId2) || (u == gId2 && v == gId1)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addChild(Edge e, int gId, int[] s2g) {
+		childEdge.add(e);
+		childEmbedding.add(new Embedding(gId, s2g));
+	}
+
+	/**
+	 * 获取结果孩子边
+	 * 
+	 * @return
+	 */
+	public ArrayList<Edge> getResultChildEdge() {
+		return this.childEdge;
+	}
+
+	/**
+	 * 获取孩子边对应的嵌入
+	 * 
+	 * @return
+	 */
+	public ArrayList<Embedding> getResultChildEmbedding() {
+		return this.childEmbedding;
+	}
+}
@@ -1,13 +1,12 @@
 package DataMining;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * gSpan频繁子图挖掘算法工具类
@@ -23,8 +22,10 @@ public class GSpanTool {
 	public final String INPUT_VERTICE = "v";
 	//表示边
 	public final String INPUT_EDGE = "e";
-	// Label标号的最大数量，包括点标号和边标号
-	public final int LABEL_MAX = 100;
+	// 并行挖掘时，支持图数不少于此值的孩子子树才单独拆分为任务
+	public final int FORK_MIN_GRAPHS = 32;
+	// 支持度阈值为0时所有标号三元组都是种子，超过此数时报错
+	static final int MAX_ZERO_SUPPORT_SEEDS = 1 << 24;
 
 	// 测试数据文件地址
 	private String filePath;
@@ -35,17 +36,25 @@ public class GSpanTool {
 	// 初始所有图的数据
 	private ArrayList<GraphData> totalGraphDatas;
 	// 所有的图结构数据
-	private ArrayList<Graph> totalGraphs;
+	private ArrayList<CsrGraph> totalGraphs;
 	// 挖掘出的频繁子图
 	private ArrayList<Graph> resultGraphs;
-	// 边的频度统计
-	private EdgeFrequency ef;
+	// 边标号三元组对所在图id的倒排索引
+	private EdgeIndex edgeIndex;
 	// 节点的频度
 	private int[] freqNodeLabel;
 	// 两节点同时出现的频度
-    private int[][] freqNodeLabels;
+    private LabelPairFrequency freqNodeLabels;
 	// 边的频度
 	private int[] freqEdgeLabel;
+	// 读入图集后点标号和边标号在多少个图中出现，countSeedEdges会改写上面两个数组，
+	// 重复挖掘时从这里恢复
+	private int[] graphFreqNodeLabel;
+	private int[] graphFreqEdgeLabel;
+	// 点标号的排序名次，[i]为排名第i位的标号
+	private int[] rankNodeLabels;
+	// 边标号的排序名次
+	private int[] rankEdgeLabels;
 	// 重新标号之后的点的标号数
 	private int newNodeLabelNum = 0;
 	// 重新标号后的边的标号数
@@ -53,341 +62,1255 @@ public class GSpanTool {
     private double meanWeight;
     // 重新编号后节点的个数
     private int nodeNum;
+	// 挖掘的并行度，1表示串行挖掘
+	private int parallelism = 1;
+	// 每个挖掘线程复用的最小编码判断对象
+	private ThreadLocal<DFSCodeTraveler> minCodeTravelers = new ThreadLocal<DFSCodeTraveler>() {
+		@Override
+		protected DFSCodeTraveler initialValue() {
+			return new DFSCodeTraveler();
+		}
+	};
+	// top-k挖掘保留的子图个数，0为按固定支持度挖掘全部子图
+	private int topK = 0;
+	// top-k挖掘是否按权重排序，否则按支持度排序
+	private boolean topKByWeight = false;
+	// 当前挖掘的top-k结果
+	private volatile TopKCollector topKCollector;
+	// 点标号对的最大边权重，用于估计top-k挖掘中子图权重的上界
+	private double maxEdgeWeight;
+	// 频繁子图结果的接收者，为null时只保留每个种子边的结果
+	private ResultSink resultSink;
+	// 并行挖掘时当前线程上的任务按串行次序收集结果的缓冲，为null时结果直接交给接收者
+	private final ThreadLocal<ArrayList<MiningCheckpoint.Pattern>> patternBuffers = new ThreadLocal<>();
+	// 是否在父编码的嵌入上增量拓展孩子边，否则每次用SubChildTraveler重新搜索
+	private boolean embeddingExtension = false;
+	// 是否在孩子边搜索过程中按支持度上界提前结束，以及跳过边数不足的图
+	private boolean supportPruning = true;
+	// 是否只挖掘闭合子图，即不存在支持度相同的超图的子图
+	private boolean closedMining = false;
+	// 是否只挖掘极大子图，即不存在频繁超图的子图
+	private boolean maximalMining = false;
+	// 当前挖掘的极大子图候选
+	private volatile MaximalCollector maximalCollector;
+	// 子图的最大边数，达到后不再拓展
+	private int maxEdges = Integer.MAX_VALUE;
+	// 子图的最大点数，达到后只拓展后向边
+	private int maxNodes = Integer.MAX_VALUE;
+	// 作为结果的子图的最小边数
+	private int minEdges = 1;
+	// 是否用显式栈代替递归遍历挖掘树
+	private boolean iterativeTraversal = false;
+	// 挖掘的预算，为null时不限制
+	private MiningBudget budget;
+	// 最近一次挖掘的报告
+	private MiningReport report;
+	// 检查点文件地址，为null时不记录检查点
+	private String checkpointPath;
+	// 当前挖掘的检查点
+	private volatile MiningCheckpoint checkpoint;
+	// 挖掘过程的统计，为null时不统计
+	private MiningMetrics metrics;
+	// 点标号和边标号的字典，为null时输入的标号就是整数标号
+	private LabelDictionary nodeLabelDictionary;
+	private LabelDictionary edgeLabelDictionary;
 
 	public GSpanTool(String filePath, double minSupportRate) {
+		this(filePath, minSupportRate, 1);
+	}
+
+	/**
+	 * @param filePath
+	 *            测试数据文件地址
+	 * @param minSupportRate
+	 *            最小支持度率
+	 * @param parallelism
+	 *            并行度，读入数据后的标号统计和之后的挖掘都使用此并行度
+	 */
+	public GSpanTool(String filePath, double minSupportRate, int parallelism) {
 		this.filePath = filePath;
 		this.minSupportRate = minSupportRate;
+		setParallelism(parallelism);
 		readDataFile();
 	}
 
+	private GSpanTool() {
+	}
+
+	/**
+	 * 读入标号为任意字符串的图集，标号用字典编码为连续整数，预处理时按频度重新编码，
+	 * 挖掘结果通过getNodeLabelDictionary和getEdgeLabelDictionary还原为原始标号
+	 * 
+	 * @param filePath
+	 *            测试数据文件地址
+	 * @param minSupportRate
+	 *            最小支持度率
+	 * @param parallelism
+	 *            并行度
+	 * @return
+	 */
+	public static GSpanTool withLabelDictionary(String filePath, double minSupportRate,
+			int parallelism) {
+		GSpanTool tool = new GSpanTool();
+		tool.filePath = filePath;
+		tool.minSupportRate = minSupportRate;
+		tool.setParallelism(parallelism);
+		tool.nodeLabelDictionary = new LabelDictionary();
+		tool.edgeLabelDictionary = new LabelDictionary();
+		tool.readDataFile();
+		return tool;
+	}
+
+	/**
+	 * 点标号字典，预处理之后的编码即为挖掘结果中的点标号，输入的标号为整数时为null
+	 */
+	public LabelDictionary getNodeLabelDictionary() {
+		return nodeLabelDictionary;
+	}
+
+	/**
+	 * 边标号字典，输入的标号为整数时为null
+	 */
+	public LabelDictionary getEdgeLabelDictionary() {
+		return edgeLabelDictionary;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * 设置挖掘的并行度，大于1时每条频繁种子边的子树作为ForkJoin任务并行挖掘
+	 * 
+	 * @param parallelism
+	 *            并行线程数
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	public ResultSink getResultSink() {
+		return resultSink;
+	}
+
+	/**
+	 * 设置频繁子图结果的接收者，每找到一个满足权重条件的子图都会立即交给它，
+	 * 挖掘结束时会调用其flush，由调用者负责关闭
+	 * 
+	 * @param resultSink
+	 *            结果接收者
+	 */
+	public void setResultSink(ResultSink resultSink) {
+		this.resultSink = resultSink;
+	}
+
+	public boolean isEmbeddingExtension() {
+		return embeddingExtension;
+	}
+
+	/**
+	 * 设置孩子边的拓展方式，true时保存每个编码的嵌入并在其上增量拓展一条边
+	 * 
+	 * @param embeddingExtension
+	 *            是否使用嵌入拓展
+	 */
+	public void setEmbeddingExtension(boolean embeddingExtension) {
+		this.embeddingExtension = embeddingExtension;
+	}
+
+	public int getTopK() {
+		return topK;
+	}
+
+	/**
+	 * 设置top-k挖掘，只保留得分最高的k个子图，挖掘过程中随着结果变好不断提高门槛来剪枝，
+	 * 构造时给出的支持度作为最低的支持度。结果在挖掘结束后才按从好到差的次序交给结果接收者
+	 * 
+	 * @param topK
+	 *            保留的子图个数，0为按固定支持度挖掘全部子图
+	 */
+	public void setTopK(int topK) {
+		if (topK < 0) {
+			throw new IllegalArgumentException("k must not be negative: " + topK);
+		}
+		this.topK = topK;
+	}
+
+	public boolean isTopKByWeight() {
+		return topKByWeight;
+	}
+
+	/**
+	 * 设置top-k挖掘的排序方式
+	 * 
+	 * @param topKByWeight
+	 *            true时在满足权重条件的子图中按权重排序，false时在所有频繁子图中按支持度排序
+	 */
+	public void setTopKByWeight(boolean topKByWeight) {
+		this.topKByWeight = topKByWeight;
+	}
+
+	public boolean isSupportPruning() {
+		return supportPruning;
+	}
+
+	/**
+	 * 设置是否在搜索孩子边时按支持度上界剪枝，剪枝不改变挖掘结果，关闭只用于对比测试
+	 * 
+	 * @param supportPruning
+	 *            是否剪枝
+	 */
+	public void setSupportPruning(boolean supportPruning) {
+		this.supportPruning = supportPruning;
+	}
+
+	public boolean isClosedMining() {
+		return closedMining;
+	}
+
+	/**
+	 * 设置是否只挖掘闭合子图，有支持度相同的超图的子图不作为结果，
+	 * 并按等价出现的边提前结束不可能含有闭合子图的子树
+	 * 
+	 * @param closedMining
+	 *            是否只挖掘闭合子图
+	 */
+	public void setClosedMining(boolean closedMining) {
+		this.closedMining = closedMining;
+	}
+
+	public boolean isMaximalMining() {
+		return maximalMining;
+	}
+
+	/**
+	 * 设置是否只挖掘极大子图，有频繁超图的子图不作为结果。没有频繁孩子编码的子图作为候选保留到
+	 * 挖掘结束，去掉被其他候选包含的之后再交给结果接收者，不能与top-k挖掘同时使用
+	 * 
+	 * @param maximalMining
+	 *            是否只挖掘极大子图
+	 */
+	public void setMaximalMining(boolean maximalMining) {
+		this.maximalMining = maximalMining;
+	}
+
+	public int getMaxEdges() {
+		return maxEdges;
+	}
+
+	/**
+	 * 设置子图的最大边数，达到最大边数的子图不再搜索孩子边，整个子树都被跳过
+	 * 
+	 * @param maxEdges
+	 *            最大边数，Integer.MAX_VALUE为不限制
+	 */
+	public void setMaxEdges(int maxEdges) {
+		if (maxEdges < 1) {
+			throw new IllegalArgumentException("max edges must be positive: " + maxEdges);
+		}
+		this.maxEdges = maxEdges;
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * 设置子图的最大点数，达到最大点数的子图只拓展连接已有点的后向边
+	 * 
+	 * @param maxNodes
+	 *            最大点数，不能小于2，Integer.MAX_VALUE为不限制
+	 */
+	public void setMaxNodes(int maxNodes) {
+		if (maxNodes < 2) {
+			throw new IllegalArgumentException("max nodes must be at least 2: " + maxNodes);
+		}
+		this.maxNodes = maxNodes;
+	}
+
+	public int getMinEdges() {
+		return minEdges;
+	}
+
+	/**
+	 * 设置作为结果的子图的最小边数，边数更少的子图仍会被拓展，但不作为结果
+	 * 
+	 * @param minEdges
+	 *            最小边数
+	 */
+	public void setMinEdges(int minEdges) {
+		if (minEdges < 1) {
+			throw new IllegalArgumentException("min edges must be positive: " + minEdges);
+		}
+		this.minEdges = minEdges;
+	}
+
+	public boolean isIterativeTraversal() {
+		return iterativeTraversal;
+	}
+
+	/**
+	 * 设置是否用显式栈遍历挖掘树，子图很大时可避免递归过深导致栈溢出，结果与递归遍历相同
+	 * 
+	 * @param iterativeTraversal
+	 *            是否使用显式栈
+	 */
+	public void setIterativeTraversal(boolean iterativeTraversal) {
+		this.iterativeTraversal = iterativeTraversal;
+	}
+
+	public MiningBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * 设置挖掘的预算，超出后停止拓展新的编码，已找到的结果照常交给结果接收者，
+	 * 哪些种子边挖掘完整见getReport
+	 * 
+	 * @param budget
+	 *            预算，为null时不限制
+	 */
+	public void setBudget(MiningBudget budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * 最近一次挖掘的报告，还没有挖掘时为null
+	 */
+	public MiningReport getReport() {
+		return report;
+	}
+
+	public MiningMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * 设置挖掘过程的统计，挖掘热点上的计数和计时都记录在其中，freqGraphMining结束时输出完整的统计
+	 * 
+	 * @param metrics
+	 *            统计对象，为null时不统计
+	 */
+	public void setMetrics(MiningMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public String getCheckpointPath() {
+		return checkpointPath;
+	}
+
+	/**
+	 * 设置检查点文件，每挖掘完一条种子边就把它的结果追加到文件中。文件已存在时先载入，
+	 * 已完成的种子边不再挖掘，直接把记录的结果交给结果接收者。全部完成后文件保留，
+	 * 不能与top-k挖掘和极大挖掘同时使用
+	 * 
+	 * @param checkpointPath
+	 *            检查点文件地址，为null时不记录检查点
+	 */
+	public void setCheckpointPath(String checkpointPath) {
+		this.checkpointPath = checkpointPath;
+	}
+
+	/**
+	 * 重新编号后的点标号对应的原始标号，[i]为新标号i的原始标号，预处理之后才有值
+	 */
+	int[] getRankNodeLabels() {
+		return rankNodeLabels;
+	}
+
+	/**
+	 * 重新编号后的边标号对应的原始标号
+	 */
+	int[] getRankEdgeLabels() {
+		return rankEdgeLabels;
+	}
+
+	/**
+	 * 从文件中流式读取数据，读完后统计点边标号的频度，并行度大于1时分段并行读取
+	 */
+	private void readDataFile() {
+		if (parallelism > 1) {
+			try {
+				totalGraphDatas = ParallelGraphLoader.load(filePath, parallelism,
+						nodeLabelDictionary, edgeLabelDictionary);
+			} catch (IOException e) {
+				e.printStackTrace();
+				totalGraphDatas = new ArrayList<>();
+			}
+		} else {
+			//原始图数据的集合
+			totalGraphDatas = new ArrayList<>();
+
+			GraphDataReader reader = null;
+			try {
+				reader = new GraphDataReader(filePath, nodeLabelDictionary, edgeLabelDictionary);
+				GraphData gd;
+				while ((gd = reader.next()) != null) {
+					//添加一个图信息
+					totalGraphDatas.add(gd);
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			} finally {
+				if (reader != null) {
+					try {
+						reader.close();
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+				}
+			}
+		}
+
+		// 每个图中的每种标号只统计一次
+		LabelStatistics labelStatistics = LabelStatistics.count(totalGraphDatas, parallelism);
+		freqNodeLabel = labelStatistics.getFreqNodeLabel();
+		freqEdgeLabel = labelStatistics.getFreqEdgeLabel();
+
+		//最小支持度数，通过图总数与最小支持度率的乘积计算所得
+		minSupportCount = (int) (minSupportRate * totalGraphDatas.size());
+
+		//根据点边频繁度移除图中不频繁的点边，各个图之间互不影响
+		ParallelGraphLoader.forEach(totalGraphDatas.size(), parallelism,
+				new ParallelGraphLoader.GraphBody() {
+					@Override
+					public void apply(int graphId) {
+						totalGraphDatas.get(graphId).removeInFreqNodeAndEdge(freqNodeLabel,
+								freqEdgeLabel, minSupportCount);
+					}
+				});
+	}
+
+	/**
+	 * 根据标号频繁度进行排序并且重新标号
+	 */
+	private void sortAndReLabel() {
+		// 点排序名次，[i]表示排名第i位的标号
+		rankNodeLabels = LabelStatistics.rank(freqNodeLabel);
+		// 边排序名次
+		rankEdgeLabels = LabelStatistics.rank(freqEdgeLabel);
+		// 标号对应排名
+		final int[] nodeLabel2Rank = LabelStatistics.label2Rank(rankNodeLabels);
+		final int[] edgeLabel2Rank = LabelStatistics.label2Rank(rankEdgeLabels);
+
+		ParallelGraphLoader.forEach(totalGraphDatas.size(), parallelism,
+				new ParallelGraphLoader.GraphBody() {
+					@Override
+					public void apply(int graphId) {
+						totalGraphDatas.get(graphId).reLabelByRank(nodeLabel2Rank, edgeLabel2Rank);
+					}
+				});
+		if (nodeLabelDictionary != null) {
+			// 字典的编码也改为排名，与重新标号后的图一致
+			nodeLabelDictionary.reorder(rankNodeLabels);
+			edgeLabelDictionary.reorder(rankEdgeLabels);
+		}
+
+		calNewLabelNum();
+	}
+
+	/**
+	 * 根据标号的排名和频度计算重新标号之后满足支持度的点边标号数
+	 */
+	private void calNewLabelNum() {
+		newNodeLabelNum = 0;
+		newEdgeLabelNum = 0;
+		// 根据排名找出满足支持度值的最大排名值，与移除不频繁点边时的判断一致，
+		// 没有出现过的标号不计入
+		int minCount = Math.max(minSupportCount, 1);
+		for (int i = 0; i < rankNodeLabels.length; i++) {
+			if (freqNodeLabel[rankNodeLabels[i]] >= minCount) {
+				newNodeLabelNum = i;
+			}
+		}
+		for (int i = 0; i < rankEdgeLabels.length; i++) {
+			if (freqEdgeLabel[rankEdgeLabels[i]] >= minCount) {
+				newEdgeLabelNum = i;
+			}
+		}
+		//排名号比数量少1，所以要加回来
+		newNodeLabelNum++;
+		newEdgeLabelNum++;
+
+		// 孩子边的键中每个标号只占固定的位数，超出时尽早报错
+		if (newNodeLabelNum > ChildEdgeMap.MAX_NODE_LABELS) {
+			throw new IllegalArgumentException(newNodeLabelNum + " frequent node labels, at most "
+					+ ChildEdgeMap.MAX_NODE_LABELS + " are supported; raise minSupportRate");
+		}
+		if (newEdgeLabelNum > ChildEdgeMap.MAX_EDGE_LABELS) {
+			throw new IllegalArgumentException(newEdgeLabelNum + " frequent edge labels, at most "
+					+ ChildEdgeMap.MAX_EDGE_LABELS + " are supported; raise minSupportRate");
+		}
+	}
+
+	ArrayList<CsrGraph> getTotalGraphs() {
+		return totalGraphs;
+	}
+
+	/**
+	 * 重新标号并构造图结构，从快照载入时已经完成，不再重复
+	 */
+	void preprocess() {
+		if (totalGraphs != null) {
+			return;
+		}
+
+		//根据标号频繁度进行排序并且重新标号
+		sortAndReLabel();
+
+		// 通过图数据构造图结构，各个图分别构造，按图id放入数组以保持次序
+		final CsrGraph[] graphs = new CsrGraph[totalGraphDatas.size()];
+		ParallelGraphLoader.forEach(graphs.length, parallelism,
+				new ParallelGraphLoader.GraphBody() {
+					@Override
+					public void apply(int graphId) {
+						graphs[graphId] = CsrGraph.constructGraph(totalGraphDatas.get(graphId));
+					}
+				});
+		// 得到初始图集
+		totalGraphs = new ArrayList<>(Arrays.asList(graphs));
+	}
+
+	/**
+	 * 将预处理后的图集写成二进制快照，之后以不低于当前的支持度挖掘时可直接载入
+	 * 
+	 * @param snapshotPath
+	 *            快照文件地址
+	 * @throws IOException
+	 */
+	public void writeSnapshot(String snapshotPath) throws IOException {
+		preprocess();
+
+		GraphSnapshot snapshot = new GraphSnapshot(totalGraphs, minSupportCount,
+				graphFreqNodeLabel != null ? graphFreqNodeLabel : freqNodeLabel,
+				graphFreqEdgeLabel != null ? graphFreqEdgeLabel : freqEdgeLabel,
+				rankNodeLabels, rankEdgeLabels);
+		snapshot.setLabelDictionaries(nodeLabelDictionary, edgeLabelDictionary);
+		snapshot.write(snapshotPath);
+	}
+
+	/**
+	 * 从二进制快照载入预处理后的图集，跳过读文件、频度统计、移除和重新标号
+	 * 
+	 * @param snapshotPath
+	 *            快照文件地址
+	 * @param minSupportRate
+	 *            最小支持度率，对应的支持度数不能低于快照的剪枝支持度数
+	 * @return
+	 * @throws IOException
+	 */
+	public static GSpanTool fromSnapshot(String snapshotPath,
+			double minSupportRate) throws IOException {
+		GraphSnapshot snapshot = GraphSnapshot.read(snapshotPath);
+		GSpanTool tool = new GSpanTool();
+		tool.filePath = snapshotPath;
+		tool.minSupportRate = minSupportRate;
+		tool.minSupportCount = (int) (minSupportRate * snapshot.getGraphs().size());
+		if (tool.minSupportCount < snapshot.getSupportCount()) {
+			throw new IllegalArgumentException(MessageFormat.format(
+					"snapshot was pruned at support count {0}, cannot mine at {1}",
+					snapshot.getSupportCount(), tool.minSupportCount));
+		}
+
+		tool.totalGraphs = snapshot.getGraphs();
+		tool.freqNodeLabel = snapshot.getFreqNodeLabel();
+		tool.freqEdgeLabel = snapshot.getFreqEdgeLabel();
+		tool.rankNodeLabels = snapshot.getRankNodeLabels();
+		tool.rankEdgeLabels = snapshot.getRankEdgeLabels();
+		tool.nodeLabelDictionary = snapshot.getNodeLabelDictionary();
+		tool.edgeLabelDictionary = snapshot.getEdgeLabelDictionary();
+		tool.calNewLabelNum();
+
+		if (tool.minSupportCount > snapshot.getSupportCount()) {
+			// 支持度更高时，按新的支持度数移除变得不频繁的点边，快照中的标号已是排名
+			boolean[] keepNodeLabel = new boolean[tool.rankNodeLabels.length];
+			boolean[] keepEdgeLabel = new boolean[tool.rankEdgeLabels.length];
+			for (int i = 0; i < keepNodeLabel.length; i++) {
+				keepNodeLabel[i] = tool.freqNodeLabel[tool.rankNodeLabels[i]] >= tool.minSupportCount;
+			}
+			for (int i = 0; i < keepEdgeLabel.length; i++) {
+				keepEdgeLabel[i] = tool.freqEdgeLabel[tool.rankEdgeLabels[i]] >= tool.minSupportCount;
+			}
+			for (int i = 0; i < tool.totalGraphs.size(); i++) {
+				tool.totalGraphs.set(i, tool.totalGraphs.get(i).prune(keepNodeLabel, keepEdgeLabel));
+			}
+		}
+		return tool;
+	}
+
+	/**
+	 * 进行频繁子图的挖掘
+	 */
+	public void freqGraphMining() {
+		long startTime =  System.currentTimeMillis();
+		long endTime = 0;
+		
+		mine();
+		
+		endTime = System.currentTimeMillis();
+		System.out.println("算法执行时间"+ (endTime-startTime) + "ms");
+		if (!report.isComplete()) {
+			System.out.println("超出预算提前结束：" + report);
+		}
+		if (metrics != null) {
+			System.out.println("挖掘统计：" + metrics.toJson());
+		}
+		printResultGraphInfo();
+	}
+
+	/**
+	 * 执行挖掘的全部步骤，不输出结果
+	 * 
+	 * @return 挖掘出的频繁子图
+	 */
+	ArrayList<Graph> mine() {
+		if (maximalMining && topK > 0) {
+			// top-k挖掘会提高支持度，没有频繁孩子编码不再代表沿最右路径无法拓展
+			throw new IllegalStateException("maximal mining cannot be combined with top-k mining");
+		}
+		if (checkpointPath != null && (topK > 0 || maximalMining)) {
+			// 这两种挖掘的结果在全部种子边挖掘完之后才确定，无法按种子边记录
+			throw new IllegalStateException(
+					"checkpoints cannot be combined with top-k or maximal mining");
+		}
+		preprocess();
+
+		long startTime = System.currentTimeMillis();
+		if (budget != null) {
+			budget.start();
+		}
+		resultGraphs = new ArrayList<>();
+
+		countSeedEdges();
+		calMeanWeight();
+		topKCollector = topK > 0 ? new TopKCollector(topK, topKByWeight) : null;
+		maximalCollector = maximalMining ? new MaximalCollector() : null;
+
+		ArrayList<GraphCode> seeds = seedCodes();
+		checkpoint = openCheckpoint();
+		if (metrics != null) {
+			metrics.start(seeds.size());
+		}
+
+		// 对每条满足阈值的边进行挖掘，每个种子边最多贡献一个结果
+		Graph[] seedResults = new Graph[seeds.size()];
+		// 每个种子边的子树是否在预算之内挖掘完整
+		boolean[] explored = new boolean[seeds.size()];
+		try {
+			if (parallelism > 1) {
+				ForkJoinPool pool = new ForkJoinPool(parallelism);
+				try {
+					SubMiningTask[] tasks = new SubMiningTask[seeds.size()];
+					for (int i = 0; i < seeds.size(); i++) {
+						if (isSeedCompleted(seeds.get(i))) {
+							continue;
+						}
+						startSeed(seeds.get(i));
+						tasks[i] = new SubMiningTask(this, seeds.get(i), 2, i);
+						pool.execute(tasks[i]);
+					}
+					// 按种子边的次序合并结果并交给结果接收者，保证与串行挖掘的输出次序一致
+					for (int i = 0; i < seeds.size(); i++) {
+						if (tasks[i] == null) {
+							seedResults[i] = replaySeed(seeds.get(i));
+							explored[i] = true;
+							continue;
+						}
+						seedResults[i] = tasks[i].join();
+						explored[i] = tasks[i].isWithinBudget();
+						for (MiningCheckpoint.Pattern pattern : tasks[i].takePatterns()) {
+							emitPattern(pattern.getGc(), pattern.getNodeNum(), pattern.getWeight());
+						}
+					}
+				} finally {
+					pool.shutdown();
+				}
+			} else {
+				for (int i = 0; i < seeds.size(); i++) {
+					if (isSeedCompleted(seeds.get(i))) {
+						seedResults[i] = replaySeed(seeds.get(i));
+						explored[i] = true;
+						continue;
+					}
+					if (isBudgetStopped()) {
+						// 超出预算后剩下的种子边不再挖掘
+						continue;
+					}
+					startSeed(seeds.get(i));
+					long seedStart = System.nanoTime();
+					seedResults[i] = subMining(seeds.get(i), 2);
+					explored[i] = !isBudgetStopped();
+					finishSeed(seeds.get(i), explored[i], null);
+					if (metrics != null) {
+						metrics.seedFinished(i, System.nanoTime() - seedStart);
+					}
+				}
+			}
+		} finally {
+			closeCheckpoint();
+			// 挖掘中途出错时也要停止进度快照的线程
+			if (metrics != null) {
+				metrics.stop();
+			}
+		}
+		if (topKCollector != null) {
+			// top-k挖掘的结果按从好到差的次序输出
+			for (TopKCollector.Pattern pattern : topKCollector.getPatterns()) {
+				resultGraphs.add(pattern.getGraph());
+				emitPattern(pattern.getGc(), pattern.getNodeNum(), pattern.getWeight());
+			}
+		} else if (maximalCollector != null) {
+			// 极大子图中满足权重条件的作为结果，按边数从多到少输出
+			for (MaximalCollector.Pattern pattern : maximalCollector.getMaximalPatterns()) {
+				if (isAccepted(pattern.getWeight())) {
+					resultGraphs.add(pattern.getGraph());
+					emitPattern(pattern.getGc(), pattern.getNodeNum(), pattern.getWeight());
+				}
+			}
+			maximalCollector = null;
+		} else {
+			for (Graph result : seedResults) {
+				if (result != null) {
+					resultGraphs.add(result);
+				}
+			}
+		}
+		if (resultSink != null) {
+			try {
+				resultSink.flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		ArrayList<Edge> seedEdges = new ArrayList<>();
+		for (GraphCode seed : seeds) {
+			seedEdges.add(seed.getEdgeSeq().get(0));
+		}
+		report = new MiningReport(budget != null ? budget.getStopReason() : null, seedEdges,
+				explored, System.currentTimeMillis() - startTime);
+
+		return resultGraphs;
+	}
+
+	/**
+	 * 统计每种单边在多少个图中出现，以及点标号和点标号对的频度
+	 */
+	void countSeedEdges() {
+		if (graphFreqNodeLabel == null) {
+			graphFreqNodeLabel = freqNodeLabel.clone();
+			graphFreqEdgeLabel = freqEdgeLabel.clone();
+		} else {
+			// 再次挖掘时恢复图集的标号频度，避免重复累加
+			freqNodeLabel = graphFreqNodeLabel.clone();
+		}
+		freqEdgeLabel = new int[newNodeLabelNum];
+		// 一次遍历所有图建立边的倒排索引，之后只统计索引中出现过的三元组，
+		// 单边的频度即为索引中的图id个数
+		edgeIndex = new EdgeIndex(totalGraphs);
+		freqNodeLabels = new LabelPairFrequency(edgeIndex, newNodeLabelNum, newEdgeLabelNum);
+		for (int n = 0; n < edgeIndex.size(); n++) {
+			//	边的一端的节点标号， 边的标号，边的另外一端节点标号
+			int i = edgeIndex.x(n);
+			int j = edgeIndex.a(n);
+			int k = edgeIndex.y(n);
+			if (!isFrequentTriple(i, j, k)) {
+				continue;
+			}
+			int count = edgeIndex.graphIdsAt(n).cardinality();
+			freqNodeLabel[i] += count;
+			freqNodeLabel[k] += count;
+		}
+	}
+
+	/**
+	 * 三元组的标号是否都在重新标号后的频繁标号范围内
+	 */
+	private boolean isFrequentTriple(int i, int j, int k) {
+		return i < newNodeLabelNum && j < newEdgeLabelNum && k < newNodeLabelNum;
+	}
+
 	/**
-	 * 从文件中读取数据
+	 * 找出所有满足阈值的单边作为挖掘的种子编码
+	 * 
+	 * @return 按i,j,k的次序排列的种子编码
+	 */
+	ArrayList<GraphCode> seedCodes() {
+		// 所有满足阈值的种子边，按i,j,k的次序排列
+		ArrayList<GraphCode> seeds = new ArrayList<>();
+		int minCount = currentMinSupportCount();
+		if (minCount < 1) {
+			// 阈值为0时频繁标号组成的每种单边都是种子，没有出现过的也是，与原有的结果保持一致
+			long seedNum = (long) newNodeLabelNum * newEdgeLabelNum * newNodeLabelNum;
+			if (seedNum > MAX_ZERO_SUPPORT_SEEDS) {
+				throw new IllegalArgumentException("support threshold is 0, so all " + seedNum
+						+ " label triples would be seeds; raise minSupportRate");
+			}
+			for (int i = 0; i < newNodeLabelNum; i++) {
+				for (int j = 0; j < newEdgeLabelNum; j++) {
+					for (int k = 0; k < newNodeLabelNum; k++) {
+						addSeed(seeds, i, j, k, edgeIndex.getGraphIds(i, j, k));
+					}
+				}
+			}
+			return seeds;
+		}
+
+		// 索引中的三元组已按i,j,k的次序排列，没有出现过的单边不可能满足阈值
+		for (int n = 0; n < edgeIndex.size(); n++) {
+			int i = edgeIndex.x(n);
+			int j = edgeIndex.a(n);
+			int k = edgeIndex.y(n);
+			// 含有此边的图id即为倒排索引中的集合
+			GraphIdSet ids = edgeIndex.graphIdsAt(n);
+			//>最小支持度
+			if (isFrequentTriple(i, j, k) && ids.cardinality() >= minCount) {
+				addSeed(seeds, i, j, k, ids);
+			}
+		}
+		return seeds;
+	}
+
+	/**
+	 * 由单边构造种子编码，加入seeds
+	 * 
+	 * @param ids
+	 *            含有此边的图id集合
+	 */
+	private void addSeed(ArrayList<GraphCode> seeds, int i, int j, int k, GraphIdSet ids) {
+		//图编码类
+		GraphCode gc = new GraphCode();
+
+		//gSpan算法对图的边进行编码，采用E(v0,v1,A,B,a)的方式
+		// （边的一端的id号标识，边的另一端的id号标识，边的一端的点标号，边的标号，边的另一端的点标号）
+		//dfs编码的方式就是比里面的五元组的元素，采用gSpan的DFS字典序，见Edge.compare
+		Edge edge = new Edge(0, 1, i, j, k);
+
+		//边的集合，边的排序代表着边的添加次序
+		gc.getEdgeSeq().add(edge);
+
+		gc.setGs(ids);
+		if (embeddingExtension) {
+			gc.setEmbeddings(new ArrayList<Embedding>());
+			for (int y : gc.getGs().toArray()) {
+				EmbeddingExtender.seedEmbeddings(edge, y,
+						totalGraphs.get(y), gc.getEmbeddings());
+			}
+		}
+		seeds.add(gc);
+	}
+
+    private void calMeanWeight() {
+	    maxEdgeWeight = -1;
+	    double minEdgeWeight = Double.MAX_VALUE;
+        for( int i = 0; i < newNodeLabelNum; ++i ) {
+            // 出现过的标号对按另一端标号升序排列，其余标号对的频度为0，仍要参与最大最小值的比较
+            int[] labels = freqNodeLabels.labels( i );
+            int[] counts = freqNodeLabels.counts( i );
+            int p = 0;
+            for( int j = 0; j < newNodeLabelNum; ++j ) {
+                int pairCount = 0;
+                if( p < labels.length && labels[p] == j ) {
+                    pairCount = counts[p++];
+                }
+                double weight = calEdgeWeight( i, j, pairCount );
+                maxEdgeWeight = Math.max( maxEdgeWeight, weight );
+                minEdgeWeight = Math.min( minEdgeWeight, weight );
+            }
+        }
+        meanWeight = ( maxEdgeWeight + minEdgeWeight ) / 2;
+    }
+
+    private double calEdgeWeight(int i, int j) {
+        return calEdgeWeight( i, j, freqNodeLabels.count( i, j ) );
+    }
+
+    private double calEdgeWeight(int i, int j, int pairCount) {
+	    double dividend = pairCount - freqNodeLabel[i] * freqNodeLabel[j];
+	    double divisor = Math.sqrt( ( pairCount ) * ( 1 - freqNodeLabel[i] * ( 1 - freqNodeLabel[j] ) ) );
+	    return dividend / divisor;
+    }
+
+    /**
+	 * 一个编码的挖掘结果：编码本身满足条件时的子图，以及需要继续挖掘的孩子编码
+	 */
+	static class CodeVisit {
+		// 满足条件的子图，没有则为null
+		final Graph result;
+		// 按DFS编码次序排列的孩子编码
+		final ArrayList<GraphCode> children;
+
+		CodeVisit(Graph result, ArrayList<GraphCode> children) {
+			this.result = result;
+			this.children = children;
+		}
+	}
+
+	/**
+	 * 进行频繁子图的挖掘
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @return 此编码子树中最后一个满足权重条件的子图，没有则返回null
+	 */
+	Graph subMining(GraphCode gc, int next) {
+		if (iterativeTraversal) {
+			return subMiningIterative(gc, next);
+		}
+
+		CodeVisit visit = visitCode(gc, next);
+		// 孩子子树中的结果会覆盖当前编码的结果
+		Graph result = visit.result;
+		for (GraphCode nGc : visit.children) {
+			Graph childResult = subMining(nGc, childNext(nGc, next));
+			if (childResult != null) {
+				result = childResult;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * 用显式栈按先序遍历编码的子树，与递归的subMining访问次序和结果相同
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @return 此编码子树中最后一个满足权重条件的子图，没有则返回null
+	 */
+	Graph subMiningIterative(GraphCode gc, int next) {
+		Graph result = null;
+		// 待挖掘的编码及其点数，孩子编码逆序入栈，保证按DFS编码次序出栈
+		ArrayDeque<GraphCode> codes = new ArrayDeque<>();
+		ArrayDeque<Integer> nexts = new ArrayDeque<>();
+		codes.push(gc);
+		nexts.push(next);
+
+		while (!codes.isEmpty() && !isBudgetStopped()) {
+			GraphCode current = codes.pop();
+			int currentNext = nexts.pop();
+			CodeVisit visit = visitCode(current, currentNext);
+			// 先序遍历中最后一个满足条件的子图就是递归挖掘的结果
+			if (visit.result != null) {
+				result = visit.result;
+			}
+			for (int i = visit.children.size() - 1; i >= 0; i--) {
+				GraphCode nGc = visit.children.get(i);
+				codes.push(nGc);
+				nexts.push(childNext(nGc, currentNext));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * 挖掘编码本身：判断是否为最小编码、是否作为结果，并找出需要继续挖掘的孩子编码
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @return 编码的挖掘结果
 	 */
-	private void readDataFile() {
-        File file = new File(filePath);
-		ArrayList<String[]> dataArray = new ArrayList<>();
+	CodeVisit visitCode(GraphCode gc, int next) {
+		// 超出预算后不再处理新的编码
+		if (budget != null && budget.isExhausted()) {
+			return new CodeVisit(null, new ArrayList<GraphCode>());
+		}
+		MiningMetrics m = metrics;
+		if (m != null) {
+			m.codeVisited(gc.edgeSeq.size());
+		}
+		if (!isMinCode(gc, next)) {
+			return new CodeVisit(null, new ArrayList<GraphCode>());
+		}
 
-		try {
-			BufferedReader in = new BufferedReader(new FileReader(file));
-			String str;
-			String[] tempArray;
-			while ((str = in.readLine()) != null) {
-                tempArray = str.split(" ");
-				dataArray.add(tempArray);
-			}
-			in.close();
-		} catch (IOException e) {
-			e.getStackTrace();
+		// 如果当前是最小编码则将此图作为结果
+		Graph graph = buildCodeGraph(gc, next);
+		ClosureTraveler closure = null;
+		if (closedMining) {
+			long closureStart = m != null ? System.nanoTime() : 0;
+			closure = checkClosure(gc, next);
+			if (m != null) {
+				m.closureChecked(System.nanoTime() - closureStart);
+			}
+		}
+		boolean closed = closure == null || closure.isClosed();
+		boolean largeEnough = gc.edgeSeq.size() >= minEdges;
+		Graph result = closed && largeEnough && maximalCollector == null
+				? acceptPattern(gc, next, graph) : null;
+		if (!canImproveTopK(graph) || gc.edgeSeq.size() >= maxEdges) {
+			// 达到最大边数时整个子树都被跳过，极大挖掘时此图也没有可拓展的孩子
+			if (closed && largeEnough) {
+				addMaximalCandidate(gc, next, graph, new ArrayList<GraphCode>());
+			}
+			return new CodeVisit(result, new ArrayList<GraphCode>());
 		}
 
-		calFrequentAndRemove(dataArray);
+		ArrayList<GraphCode> children = childCodes(gc, next, closure);
+		if (closed && largeEnough) {
+			addMaximalCandidate(gc, next, graph, children);
+		}
+		if (m != null) {
+			m.childrenFound(gc.edgeSeq.size(), children.size());
+		}
+		return new CodeVisit(result, children);
 	}
 
 	/**
-	 * 统计边和点的频度，并移除不频繁的点边，以标号作为统计的变量
+	 * 判断最小编码的子图是否满足权重条件，满足则交给结果接收者，
+	 * top-k挖掘时交给top-k结果
 	 * 
-	 * @param dataArray
-	 *            原始数据
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @param graph
+	 *            编码构成的图
+	 * @return 满足条件时返回子图，否则返回null
 	 */
-	private void calFrequentAndRemove(ArrayList<String[]> dataArray) {
-		int tempCount = 0;
-		freqNodeLabel = new int[LABEL_MAX];
-		freqEdgeLabel = new int[LABEL_MAX];
-
-		// 做初始化操作
-		for (int i = 0; i < LABEL_MAX; i++) {
-			// 代表标号为i的节点目前的数量为0
-			freqNodeLabel[i] = 0;
-			freqEdgeLabel[i] = 0;
+	Graph acceptPattern(GraphCode gc, int next, Graph graph) {
+		double weight = calPatternWeight(graph);
+		boolean accepted = isAccepted(weight);
+		if (accepted && budget != null && !budget.tryAcquirePattern()) {
+			// 结果个数达到上限
+			return null;
+		}
+		if (accepted && metrics != null) {
+			metrics.patternAccepted();
 		}
 
-		//原始图的数据
-		// 包含：
-		//节点组标号
-		// 节点是否可用,可能被移除
-		
-		// 边的集合标号
-		// 边的一边点id
-		// 边的另一边的点id
-		// 边是否可用
-
-		GraphData gd = null;
-		//原始图数据的集合
-		totalGraphDatas = new ArrayList<>();
-		//读取输入文件，将其存放在一个数组集合中
-		for (String[] array : dataArray) {
-			if (array[0].equals(INPUT_NEW_GRAPH)) {
-				if (gd != null) {
-					//添加一个图信息
-					totalGraphDatas.add(gd);
-				}
-
-				// 新建图（图的数据信息）
-				gd = new GraphData();
-			} else if (array[0].equals(INPUT_VERTICE)) {
-				// 每个图中的每种图只统计一次
-				if (!gd.getNodeLabels().contains(Integer.parseInt(array[2]))) {
-					//节点的频度
-					tempCount = freqNodeLabel[Integer.parseInt(array[2])];
-					//节点的频度+1
-					tempCount++;
-					freqNodeLabel[Integer.parseInt(array[2])] = tempCount;
-				}
-
-				gd.getNodeLabels().add(Integer.parseInt(array[2]));
-				gd.getNodeVisibles().add(true);
-			} else if (array[0].equals(INPUT_EDGE)) {
-				// 每个图中的每种图只统计一次
-				if (!gd.getEdgeLabels().contains(Integer.parseInt(array[3]))) {
-					//边的频度
-					tempCount = freqEdgeLabel[Integer.parseInt(array[3])];
-					//边点的频度+1
-					tempCount++;
-					freqEdgeLabel[Integer.parseInt(array[3])] = tempCount;
-				}
-
-				int i = Integer.parseInt(array[1]);
-				int j = Integer.parseInt(array[2]);
-
-				gd.getEdgeLabels().add(Integer.parseInt(array[3]));
-				gd.getEdgeX().add(i);
-				gd.getEdgeY().add(j);
-				gd.getEdgeVisibles().add(true);
+		TopKCollector collector = topKCollector;
+		if (collector != null) {
+			// 按支持度排序时所有频繁子图都参与排序
+			if (accepted || !collector.isByWeight()) {
+				collector.offer(gc, next, graph, weight);
 			}
+			return accepted ? graph : null;
+		}
+		if (!accepted) {
+			return null;
 		}
-		// 把最后一个图数据信息gd数据加入
-		//gd是图的相关数据信息
-		//得到一个初始图集
-		totalGraphDatas.add(gd);
-		
-		//最小支持度数，通过图总数与最小支持度率的乘积计算所得
-		minSupportCount = (int) (minSupportRate * totalGraphDatas.size());
 
-		for (GraphData g : totalGraphDatas) {
-			//根据点边频繁度移除图中不频繁的点边
-			g.removeInFreqNodeAndEdge(freqNodeLabel, freqEdgeLabel,
-					minSupportCount);
+		ArrayList<MiningCheckpoint.Pattern> buffer = patternBuffers.get();
+		if (buffer != null) {
+			// 并行挖掘时先收集起来，种子边挖掘结束后再按串行的次序记录和输出
+			buffer.add(MiningCheckpoint.Pattern.of(gc, next, weight));
+			return graph;
+		}
+		emitPattern(gc, next, weight);
+		MiningCheckpoint current = checkpoint;
+		if (current != null) {
+			current.recordPattern(gc, next, weight);
 		}
+		return graph;
 	}
 
 	/**
-	 * 根据标号频繁度进行排序并且重新标号
+	 * 子图权重是否满足条件，与judgeIsMoreMeanWeight保持一致，权重为NaN时也不满足条件
 	 */
-	private void sortAndReLabel() {
-		int label1 = 0;
-		int label2 = 0;
-		int temp = 0;
-		// 点排序名次
-		int[] rankNodeLabels = new int[LABEL_MAX];
-		// 边排序名次
-		int[] rankEdgeLabels = new int[LABEL_MAX];
-		// 标号对应排名
-		int[] nodeLabel2Rank = new int[LABEL_MAX];
-		int[] edgeLabel2Rank = new int[LABEL_MAX];
-
-		for (int i = 0; i < LABEL_MAX; i++) {
-			// 表示排名第i位的标号为i，[i]中的i表示排名
-			rankNodeLabels[i] = i;
-			rankEdgeLabels[i] = i;
-		}
-
-		//节点的频度数组：freqNodeLabel
-		for (int i = 0; i < freqNodeLabel.length - 1; i++) {
-			int k = 0;
-			label1 = rankNodeLabels[i];
-			temp = label1;
-			for (int j = i + 1; j < freqNodeLabel.length; j++) {
-				label2 = rankNodeLabels[j];
-
-				if (freqNodeLabel[temp] < freqNodeLabel[label2]) {
-					// 进行标号的互换
-					temp = label2;
-					k = j;
-				}
-			}
+	private boolean isAccepted(double weight) {
+		return weight >= meanWeight * minSupportRate;
+	}
 
-			if (temp != label1) {
-				// 进行i，k排名下的标号对调
-				temp = rankNodeLabels[k];
-				rankNodeLabels[k] = rankNodeLabels[i];
-				rankNodeLabels[i] = temp;
-			}
+	/**
+	 * 极大挖掘时，没有频繁孩子编码的子图作为极大子图的候选。孩子编码即使不是最小编码，
+	 * 也代表一个多一条边的频繁超图，有孩子编码的子图一定不是极大的
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @param graph
+	 *            编码构成的图
+	 * @param children
+	 *            图编码的孩子编码
+	 */
+	void addMaximalCandidate(GraphCode gc, int next, Graph graph, ArrayList<GraphCode> children) {
+		MaximalCollector collector = maximalCollector;
+		if (collector != null && children.isEmpty()
+				&& (budget == null || budget.tryAcquirePattern())) {
+			collector.add(gc, next, graph, calPatternWeight(graph));
 		}
+	}
 
-		// 对边同样进行排序
-		//边的频度数组：freqEdgeLabel
-		for (int i = 0; i < freqEdgeLabel.length - 1; i++) {
-			int k = 0;
-			label1 = rankEdgeLabels[i];
-			temp = label1;
-			for (int j = i + 1; j < freqEdgeLabel.length; j++) {
-				label2 = rankEdgeLabels[j];
-
-				if (freqEdgeLabel[temp] < freqEdgeLabel[label2]) {
-					// 进行标号的互换
-					temp = label2;
-					k = j;
-				}
+	private void emitPattern(GraphCode gc, int next, double weight) {
+		if (resultSink != null) {
+			try {
+				resultSink.accept(gc, next, weight);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
+		}
+	}
 
-			if (temp != label1) {
-				// 进行i，k排名下的标号对调
-				temp = rankEdgeLabels[k];
-				rankEdgeLabels[k] = rankEdgeLabels[i];
-				rankEdgeLabels[i] = temp;
-			}
+	/**
+	 * 打开检查点，标号排名和影响结果的挖掘参数一起记录在文件头中用于校验
+	 */
+	private MiningCheckpoint openCheckpoint() {
+		if (checkpointPath == null) {
+			return null;
+		}
+		int[] settings = { totalGraphs.size(), minSupportCount, closedMining ? 1 : 0,
+				maxEdges, maxNodes, minEdges };
+		try {
+			return MiningCheckpoint.open(checkpointPath, minSupportRate, settings,
+					rankNodeLabels, rankEdgeLabels);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
+	}
 
-		// 将排名对标号转为标号对排名
-		for (int i = 0; i < rankNodeLabels.length; i++) {
-			nodeLabel2Rank[rankNodeLabels[i]] = i;
+	private void closeCheckpoint() {
+		if (checkpoint == null) {
+			return;
+		}
+		try {
+			checkpoint.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			checkpoint = null;
 		}
+	}
 
-		for (int i = 0; i < rankEdgeLabels.length; i++) {
-			edgeLabel2Rank[rankEdgeLabels[i]] = i;
+	/**
+	 * 种子边是否已在之前的运行中挖掘完整
+	 */
+	private boolean isSeedCompleted(GraphCode seed) {
+		return checkpoint != null && checkpoint.isCompleted(seed.getEdgeSeq().get(0));
+	}
+
+	/**
+	 * 把检查点中记录的种子边结果重新交给结果接收者
+	 * 
+	 * @return 种子边的结果，没有则返回null
+	 */
+	private Graph replaySeed(GraphCode seed) {
+		Graph result = null;
+		for (MiningCheckpoint.Pattern pattern : checkpoint.getPatterns(seed.getEdgeSeq().get(0))) {
+			emitPattern(pattern.getGc(), pattern.getNodeNum(), pattern.getWeight());
+			result = buildCodeGraph(pattern.getGc(), pattern.getNodeNum());
 		}
+		return result;
+	}
 
-		for (GraphData gd : totalGraphDatas) {
-			gd.reLabelByRank( nodeLabel2Rank, edgeLabel2Rank );
+	private void startSeed(GraphCode seed) {
+		if (checkpoint != null) {
+			checkpoint.startSeed(seed.getEdgeSeq().get(0));
 		}
+	}
 
-		// 根据排名找出小于支持度值的最大排名值
-		for (int i = 0; i < rankNodeLabels.length; i++) {
-			if (freqNodeLabel[rankNodeLabels[i]] > minSupportCount) {
-				newNodeLabelNum = i;
-			}
+	/**
+	 * 设置当前线程上的任务收集结果的缓冲
+	 * 
+	 * @param buffer
+	 *            新的缓冲，为null时结果直接交给结果接收者
+	 * @return 原来的缓冲
+	 */
+	ArrayList<MiningCheckpoint.Pattern> swapPatternBuffer(ArrayList<MiningCheckpoint.Pattern> buffer) {
+		ArrayList<MiningCheckpoint.Pattern> previous = patternBuffers.get();
+		if (buffer == null) {
+			patternBuffers.remove();
+		} else {
+			patternBuffers.set(buffer);
 		}
-		for (int i = 0; i < rankEdgeLabels.length; i++) {
-			if (freqEdgeLabel[rankEdgeLabels[i]] > minSupportCount) {
-				newEdgeLabelNum = i;
+		return previous;
+	}
+
+	/**
+	 * 种子边的子树挖掘结束，挖掘完整时写入检查点，否则丢弃其结果
+	 * 
+	 * @param seed
+	 *            种子编码
+	 * @param explored
+	 *            子树是否挖掘完整
+	 * @param patterns
+	 *            并行挖掘时子树按串行次序收集的结果，串行挖掘时已逐个记录，为null
+	 */
+	void finishSeed(GraphCode seed, boolean explored, ArrayList<MiningCheckpoint.Pattern> patterns) {
+		MiningCheckpoint current = checkpoint;
+		if (current == null) {
+			return;
+		}
+		if (!explored) {
+			current.discardSeed(seed.getEdgeSeq().get(0));
+			return;
+		}
+		if (patterns != null) {
+			for (MiningCheckpoint.Pattern pattern : patterns) {
+				current.recordPattern(pattern.getGc(), pattern.getNodeNum(), pattern.getWeight());
 			}
 		}
-		//排名号比数量少1，所以要加回来
-		newNodeLabelNum++;
-		newEdgeLabelNum++;
+		try {
+			current.completeSeed(seed.getEdgeSeq().get(0));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	/**
-	 * 进行频繁子图的挖掘
+	 * 本次挖掘是否已经因超出预算而停止
 	 */
-	public void freqGraphMining() {
-		long startTime =  System.currentTimeMillis();
-		long endTime = 0;
-		Graph g;
-		
-		//根据标号频繁度进行排序并且重新标号
-		sortAndReLabel();
+	boolean isBudgetStopped() {
+		return budget != null && budget.isStopped();
+	}
 
-		resultGraphs = new ArrayList<>();
-		totalGraphs = new ArrayList<>();
-		// 通过图数据构造图结构
-		// 得到初始图集
-		for (GraphData gd : totalGraphDatas) {
-			g = new Graph();
-			g = g.constructGraph( gd );
-			totalGraphs.add( g );
+	/**
+	 * 当前的最小支持度计数，top-k挖掘按支持度排序时随着结果变好而提高
+	 */
+	int currentMinSupportCount() {
+		TopKCollector collector = topKCollector;
+		if (collector == null) {
+			return minSupportCount;
 		}
+		// top-k挖掘至少要求子图出现在一个图中
+		return Math.max(Math.max(minSupportCount, 1), collector.getMinSupportCount());
+	}
 
-		freqEdgeLabel = new int[newNodeLabelNum];
-		freqNodeLabels = new int[newNodeLabelNum][newNodeLabelNum];
-		// 根据新的点边的标号数初始化边频繁度对象
-		//newNodeLabelNum：重新标号之后的点的标号数
-		//newEdgeLabelNum:重新标号之后的边的标号数
-		ef = new EdgeFrequency(newNodeLabelNum, newEdgeLabelNum);
-		for (int i = 0; i < newNodeLabelNum; i++) {
-			for (int j = 0; j < newEdgeLabelNum; j++) {
-				for (int k = 0; k < newNodeLabelNum; k++) {
-					for (Graph tempG : totalGraphs) {
-						//	参数： 边的一端的节点标号， 边的标号，边的另外一端节点标号
-						if (tempG.hasEdge(i, j, k)) {
-							ef.edgeFreqCount[i][j][k]++;
-							freqNodeLabel[i] += 1;
-							freqNodeLabel[k] += 1;
-							freqNodeLabels[i][k] += 1;
-							freqNodeLabels[k][i] += 1;
-						}
-					}
-				}
-			}
+	/**
+	 * top-k挖掘按权重排序时，判断以此图为根的子树中是否还可能有子图进入结果。
+	 * 子树中的子图权重为平均边权重与getSup的乘积，平均边权重不超过最大边权重。
+	 * getSup保留了原有实现的算法，以点id和邻居id作为标号查询倒排索引并求交集，见Graph.getSup，
+	 * 孩子编码只会增加查询的三元组，交集只会变小，因此以此图的getSup估计上界
+	 * 
+	 * @param graph
+	 *            子树的根
+	 * @return 是否需要继续拓展
+	 */
+	boolean canImproveTopK(Graph graph) {
+		TopKCollector collector = topKCollector;
+		if (collector == null || !collector.isByWeight()) {
+			return true;
 		}
-		calMeanWeight();
-
-		Edge edge;
-		GraphCode gc;
-		int index = 0;
-		resultGraphs.add( null );
-		for (int i = 0; i < newNodeLabelNum; i++) {
-			for (int j = 0; j < newEdgeLabelNum; j++) {
-				for (int k = 0; k < newNodeLabelNum; k++) {
-					//>最小支持度
-					if (ef.edgeFreqCount[i][j][k] >= minSupportCount) {
-						//图编码类
-						gc = new GraphCode();
-						
-						//gSpan算法对图的边进行编码，采用E(v0,v1,A,B,a)的方式
-						// （边的一端的id号标识，边的另一端的id号标识，边的一端的点标号，边的标号，边的另一端的点标号）
-						//dfs编码的方式就是比里面的五元组的元素，我这里采用的规则是，从左往右依次比较大小，如果谁先小于另一方，谁就算小
-						edge = new Edge(0, 1, i, j, k);
-						
-						//边的集合，边的排序代表着边的添加次序
-						gc.getEdgeSeq().add(edge);
-
-						// 将含有此边的图id加入到gc中
-						for (int y = 0; y < totalGraphs.size(); y++) {
-							//判断图中是否存在某条边
-							if (totalGraphs.get(y).hasEdge(i, j, k)) {
-								//拥有这些边的图的id
-								//y图的id
-								gc.getGs().add(y);
-							}
-						}
-						// 对某条满足阈值的边进行挖掘
-						subMining(gc, 2, index );
-						if( resultGraphs.get(index) != null ) {
-                            index += 1;
-                            resultGraphs.add( null );
-                        }
-					}
-				}
-			}
+		double minWeight = collector.getMinWeight();
+		if (minWeight == Double.NEGATIVE_INFINITY) {
+			return true;
 		}
-		if( resultGraphs.get(index) == null ) {
-		    resultGraphs.remove( index );
-        }
-		
-		endTime = System.currentTimeMillis();
-		System.out.println("算法执行时间"+ (endTime-startTime) + "ms");
-		printResultGraphInfo();
+		double bound = maxEdgeWeight >= 0
+				? maxEdgeWeight * graph.getSup(edgeIndex, totalGraphs.size()) : 0;
+		// 上界为NaN时不剪枝
+		return !(bound < minWeight);
 	}
 
-    private void calMeanWeight() {
-	    double maxEdgeWeight = -1;
-	    double minEdgeWeight = Double.MAX_VALUE;
-        for( int i = 0; i < newNodeLabelNum; ++i ) {
-            for( int j = 0; j < newNodeLabelNum; ++j ) {
-                double weight = calEdgeWeight( i, j );
-                maxEdgeWeight = Math.max( maxEdgeWeight, weight );
-                minEdgeWeight = Math.min( minEdgeWeight, weight );
-            }
-        }
-        meanWeight = ( maxEdgeWeight + minEdgeWeight ) / 2;
-    }
-
-    private double calEdgeWeight(int i, int j) {
-	    double dividend = freqNodeLabels[i][j] - freqNodeLabel[i] * freqNodeLabel[j];
-	    double divisor = Math.sqrt( ( freqNodeLabels[i][j] ) * ( 1 - freqNodeLabel[i] * ( 1 - freqNodeLabel[j] ) ) );
-	    return dividend / divisor;
-    }
-
-    /**
-	 * 进行频繁子图的挖掘
+	/**
+	 * 根据图编码中的边五元组构造图
 	 * 
 	 * @param gc
 	 *            图编码
 	 * @param next
 	 *            图所含的点的个数
+	 * @return
 	 */
-	private void subMining(GraphCode gc, int next, int index ) {
+	Graph buildCodeGraph(GraphCode gc, int next) {
 		Edge e;
 		Graph graph = new Graph();
 		int id1;
@@ -399,7 +1322,6 @@ public class GSpanTool {
 			graph.edgeNexts.add(new ArrayList<Integer>());
 		}
 
-		// 首先根据图编码中的边五元组构造图
 		for (int i = 0; i < gc.getEdgeSeq().size(); i++) {
 			e = gc.getEdgeSeq().get(i);
 			id1 = e.ix;
@@ -413,79 +1335,326 @@ public class GSpanTool {
 			graph.edgeNexts.get(id2).add(id1);
 		}
 
-		DFSCodeTraveler dTraveler = new DFSCodeTraveler(gc.getEdgeSeq(), graph);
-		dTraveler.traveler();
-		if (!dTraveler.isMin) {
-			return;
+		return graph;
+	}
+
+	/**
+	 * 判断图编码是否为其图的最小编码
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 */
+	boolean isMinCode(GraphCode gc, int next) {
+		MiningMetrics m = metrics;
+		if (m == null) {
+			return minCodeTravelers.get().traveler(gc.getEdgeSeq(), next);
 		}
+		long start = System.nanoTime();
+		boolean isMin = minCodeTravelers.get().traveler(gc.getEdgeSeq(), next);
+		m.minChecked(isMin, System.nanoTime() - start);
+		return isMin;
+	}
 
-		// 如果当前是最小编码则将此图加入到结果集中
-		if( judgeIsMoreMeanWeight( graph ) ) {
-            resultGraphs.set( index, graph );
-        }
+	/**
+	 * 判断编码的子图是否闭合，同时找出等价出现的边
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @return 处理完支持图的闭合判断对象
+	 */
+	ClosureTraveler checkClosure(GraphCode gc, int next) {
+		ClosureTraveler closure = new ClosureTraveler(gc.edgeSeq, next);
+		if (gc.embeddings != null) {
+			int from = 0;
+			for (int i = 0; i < gc.embeddings.size(); i = from) {
+				int graphId = gc.embeddings.get(i).gId;
+				// 同一个图的嵌入是连续的
+				from = i;
+				while (from < gc.embeddings.size() && gc.embeddings.get(from).gId == graphId) {
+					from++;
+				}
+				if (!closure.addGraph(totalGraphs.get(graphId), gc.embeddings.subList(i, from))) {
+					break;
+				}
+			}
+		} else {
+			for (int id : gc.gs.toArray()) {
+				// 没有任何边出现在之前所有的支持图中时，已经可以确定是闭合的
+				if (!closure.addGraph(totalGraphs.get(id), null)) {
+					break;
+				}
+			}
+		}
+		return closure;
+	}
 
-		
-		Edge e1;
-		ArrayList<Integer> gIds;
+	/**
+	 * 找出需要继续挖掘的孩子编码：达到最大点数时去掉前向孩子边，闭合挖掘时按等价出现的边
+	 * 去掉子树中不可能有闭合子图的孩子编码
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @param next
+	 *            图所含的点的个数
+	 * @param closure
+	 *            编码的闭合判断结果，为null时不按闭合过滤
+	 * @return 按DFS编码次序排列的孩子编码
+	 */
+	ArrayList<GraphCode> childCodes(GraphCode gc, int next, ClosureTraveler closure) {
+		int limit = closure == null ? Integer.MAX_VALUE : closure.getChildBackwardLimit();
+		if (limit < 0) {
+			return new ArrayList<>();
+		}
+
+		ArrayList<GraphCode> children = childCodes(gc);
+		boolean forwardAllowed = next < maxNodes;
+		if (limit == Integer.MAX_VALUE && forwardAllowed) {
+			return children;
+		}
+		ArrayList<GraphCode> kept = new ArrayList<>();
+		for (GraphCode nGc : children) {
+			Edge e = nGc.edgeSeq.get(nGc.edgeSeq.size() - 1);
+			if (e.ix < e.iy) {
+				// 前向边会增加一个点，且在之后也不可能加入等价出现的边
+				if (forwardAllowed && limit == Integer.MAX_VALUE) {
+					kept.add(nGc);
+				}
+			} else if (e.iy <= limit) {
+				// 只有另一端不超过上限的后向孩子边才可能在之后加入等价出现的边
+				kept.add(nGc);
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * 在当前编码上多加一条边，找出所有满足最小支持度的孩子编码
+	 * 
+	 * @param gc
+	 *            图编码
+	 * @return 按DFS编码次序排列的孩子编码
+	 */
+	ArrayList<GraphCode> childCodes(GraphCode gc) {
 		SubChildTraveler sct;
 		ArrayList<Edge> edgeArray;
+		// top-k挖掘时最小支持度会不断提高，每次取当前值
+		int minSupport = currentMinSupportCount();
+		MiningMetrics m = metrics;
+		long start = m != null ? System.nanoTime() : 0;
 		
-		// 添加潜在的孩子边，每条孩子边所属的图id
-		HashMap<Edge, ArrayList<Integer>> edge2GId = new HashMap<>();
-		for (int i = 0; i < gc.gs.size(); i++) {
-			int id = gc.gs.get(i);
-
-			// 在此结构的条件下，在多加一条边构成子图继续挖掘
-			sct = new SubChildTraveler(gc.edgeSeq, totalGraphs.get(id));
-			sct.traveler();
-			edgeArray = sct.getResultChildEdge();
-
-			// 做边id的更新
-			for (Edge e2 : edgeArray) {
-				if (!edge2GId.containsKey(e2)) {
-					gIds = new ArrayList<>();
-				} else {
-					gIds = edge2GId.get(e2);
+		// 添加潜在的孩子边，五元组相同的孩子边合并，记录所属的图id，使用嵌入拓展时同时记录嵌入
+		ChildEdgeMap childEdges = new ChildEdgeMap(totalGraphs.size(), gc.embeddings != null);
+		if (gc.embeddings != null) {
+			collectChildEdgesByEmbedding(gc, childEdges, minSupport);
+		} else {
+			int[] parentIds = gc.gs.toArray();
+			for (int i = 0; i < parentIds.length; i++) {
+				int id = parentIds[i];
+				// 包括当前图在内还剩下的图数，是孩子边还能增加的支持度上界
+				int remaining = parentIds.length - i;
+				if (supportPruning) {
+					if (childEdges.getMaxCount() + remaining < minSupport) {
+						// 已有的和之后新出现的孩子边都不可能再满足支持度
+						if (m != null) {
+							m.graphsPruned(remaining);
+						}
+						break;
+					}
+					if (totalGraphs.get(id).edgeNum() <= gc.edgeSeq.size()) {
+						// 图中的边数不足以容纳多一条边的孩子编码
+						if (m != null) {
+							m.graphsPruned(1);
+						}
+						continue;
+					}
+					if (remaining < minSupport
+							&& !containsLiveChildEdge(childEdges, id, remaining, minSupport)) {
+						// 图中没有任何还可能满足支持度的孩子边的标号三元组
+						if (m != null) {
+							m.graphsPruned(1);
+						}
+						continue;
+					}
+				}
+
+				// 在此结构的条件下，在多加一条边构成子图继续挖掘
+				sct = new SubChildTraveler(gc.edgeSeq, totalGraphs.get(id));
+				sct.traveler();
+				edgeArray = sct.getResultChildEdge();
+				if (m != null) {
+					m.childEdgesFound(false, edgeArray.size());
 				}
 
-				gIds.add(id);
-				edge2GId.put(e2, gIds);
+				// 做边id的更新，剩下的图数不足最小支持度时新出现的孩子边不再记录
+				boolean addNew = !supportPruning || remaining >= minSupport;
+				for (Edge e2 : edgeArray) {
+					if (addNew) {
+						childEdges.add(e2, id);
+					} else {
+						childEdges.addIfPresent(e2, id);
+					}
+				}
 			}
 		}
 
-		for (Map.Entry entry : edge2GId.entrySet()) {
-			e1 = (Edge) entry.getKey();
-			gIds = (ArrayList<Integer>) entry.getValue();
-
-			// 如果此边的频度大于最小支持度值，则继续挖掘
-			if (gIds.size() < minSupportCount) {
+		ArrayList<GraphCode> children = new ArrayList<>();
+		for (int entry : childEdges.sortedEntries()) {
+			// 如果此边的频度大于最小支持度值，则继续挖掘，同一个图只计一次
+			if (childEdges.getCount(entry) < minSupport) {
 				continue;
 			}
 
 			GraphCode nGc = new GraphCode();
 			nGc.edgeSeq.addAll(gc.edgeSeq);
 			// 在当前图中新加入一条边，构成新的子图进行挖掘
-			nGc.edgeSeq.add(e1);
-			nGc.gs.addAll(gIds);
+			nGc.edgeSeq.add(childEdges.getEdge(entry));
+			nGc.gs = childEdges.getGraphIds(entry);
+			nGc.embeddings = childEdges.getEmbeddings(entry);
+			children.add(nGc);
+		}
 
-			if (e1.iy == next) {
-				// 如果边的点id设置是为当前最大值的时候，则开始寻找下一个点
-				subMining(nGc, next + 1, index);
-			} else {
-				// 如果此点已经存在，则next值不变
-				subMining(nGc, next, index);
+		if (m != null) {
+			m.childCodesGenerated(childEdges.size(), children.size(), System.nanoTime() - start);
+		}
+		return children;
+	}
+
+	/**
+	 * 在编码已有的嵌入上拓展一条边，得到孩子边及其所属的图id和嵌入
+	 * 
+	 * @param gc
+	 *            图编码，嵌入按图id的次序排列
+	 * @param childEdges
+	 *            孩子边的汇总表
+	 * @param minSupport
+	 *            最小支持度计数
+	 */
+	private void collectChildEdgesByEmbedding(GraphCode gc, ChildEdgeMap childEdges,
+			int minSupport) {
+		ArrayList<Edge> edgeArray;
+		ArrayList<Embedding> embeddingArray;
+		int from = 0;
+		// 包括当前图在内还剩下的图数
+		int remaining = gc.gs.cardinality();
+
+		for (int i = 0; i < gc.embeddings.size(); i = from, remaining--) {
+			int graphId = gc.embeddings.get(i).gId;
+			// 同一个图的嵌入是连续的，[i, from)为此图的全部嵌入
+			from = i;
+			while (from < gc.embeddings.size() && gc.embeddings.get(from).gId == graphId) {
+				from++;
+			}
+			if (supportPruning) {
+				if (childEdges.getMaxCount() + remaining < minSupport) {
+					if (metrics != null) {
+						metrics.graphsPruned(remaining);
+					}
+					break;
+				}
+				if (totalGraphs.get(graphId).edgeNum() <= gc.edgeSeq.size()) {
+					if (metrics != null) {
+						metrics.graphsPruned(1);
+					}
+					continue;
+				}
+				if (remaining < minSupport
+						&& !containsLiveChildEdge(childEdges, graphId, remaining, minSupport)) {
+					if (metrics != null) {
+						metrics.graphsPruned(1);
+					}
+					continue;
+				}
+			}
+
+			// 同一个图的嵌入共用一个拓展对象
+			EmbeddingExtender extender = new EmbeddingExtender(gc.edgeSeq,
+					totalGraphs.get(graphId));
+			for (int j = i; j < from; j++) {
+				extender.extend(gc.embeddings.get(j));
+			}
+			edgeArray = extender.getResultChildEdge();
+			embeddingArray = extender.getResultChildEmbedding();
+			if (metrics != null) {
+				metrics.childEdgesFound(true, edgeArray.size());
+			}
+
+			// 做边id的更新，孩子边的嵌入与孩子边一一对应
+			boolean addNew = !supportPruning || remaining >= minSupport;
+			for (int j = 0; j < edgeArray.size(); j++) {
+				int entry = addNew ? childEdges.add(edgeArray.get(j), graphId)
+						: childEdges.addIfPresent(edgeArray.get(j), graphId);
+				if (entry >= 0) {
+					childEdges.addEmbedding(entry, embeddingArray.get(j));
+				}
+			}
+		}
+	}
+
+	/**
+	 * 判断图中是否含有某个还可能满足支持度的孩子边的标号三元组，只根据倒排索引判断，
+	 * 含有三元组不代表一定能拓展出这条孩子边
+	 * 
+	 * @param childEdges
+	 *            已找到的孩子边
+	 * @param gId
+	 *            图id
+	 * @param remaining
+	 *            包括此图在内还剩下的图数
+	 * @param minSupport
+	 *            最小支持度计数
+	 */
+	private boolean containsLiveChildEdge(ChildEdgeMap childEdges, int gId, int remaining,
+			int minSupport) {
+		for (int entry = 0; entry < childEdges.size(); entry++) {
+			if (childEdges.getCount(entry) + remaining < minSupport) {
+				continue;
 			}
+			Edge e = childEdges.getEdge(entry);
+			if (edgeIndex.contains(gId, e.x, e.a, e.y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 计算孩子编码所含的点的个数
+	 * 
+	 * @param nGc
+	 *            孩子编码
+	 * @param next
+	 *            父编码所含的点的个数
+	 * @return
+	 */
+	int childNext(GraphCode nGc, int next) {
+		Edge e1 = nGc.edgeSeq.get(nGc.edgeSeq.size() - 1);
+		if (e1.iy == next) {
+			// 如果边的点id设置是为当前最大值的时候，则开始寻找下一个点
+			return next + 1;
 		}
+		// 如果此点已经存在，则next值不变
+		return next;
 	}
 
-    private boolean judgeIsMoreMeanWeight(Graph graph) {
-	    if( calWeight( graph ) * graph.getSup(totalGraphs) >= meanWeight * minSupportRate ) {
+    boolean judgeIsMoreMeanWeight(Graph graph) {
+	    if( calPatternWeight( graph ) >= meanWeight * minSupportRate ) {
 	        return true;
         } else {
 	        return false;
         }
     }
 
+    /**
+     * 子图的权重，为边的平均权重与支持度的乘积
+     */
+    private double calPatternWeight(Graph graph) {
+	    return calWeight( graph ) * graph.getSup(edgeIndex, totalGraphs.size());
+    }
+
     private double calWeight(Graph graph) {
 	    graph.initIsVis();
         int edgeNum = 0;
@@ -522,7 +1691,17 @@ public class GSpanTool {
 	    int size = resultGraphs.size();
 		System.out.println(MessageFormat.format("挖掘出的频繁子图的个数为：{0}个", size));
 		for( int i = 0; i < size; ++i ) {
-            System.out.println( resultGraphs.get(i).nodeLabels );
+			ArrayList<Integer> nodeLabels = resultGraphs.get(i).nodeLabels;
+			if (nodeLabelDictionary == null) {
+				System.out.println( nodeLabels );
+				continue;
+			}
+			// 还原为原始标号输出
+			ArrayList<String> labels = new ArrayList<>(nodeLabels.size());
+			for (int label : nodeLabels) {
+				labels.add(nodeLabelDictionary.decode(label));
+			}
+			System.out.println( labels );
         }
 	}
 	
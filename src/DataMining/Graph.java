@@ -15,9 +15,6 @@ public class Graph {
 	ArrayList<ArrayList<Integer>> edgeLabels;
 	// 边2头的节点id号,在这里可以理解为下标号
 	ArrayList<ArrayList<Integer>> edgeNexts;
-	// 是否是图i的子图
-    boolean[] isFromGroups;
-
 	boolean[][] isVis;
 
 	public Graph() {
@@ -26,40 +23,36 @@ public class Graph {
 		edgeNexts = new ArrayList<>();
 	}
 
-	public double getSup( ArrayList<Graph> totalGraphs ) {
-	    int size = totalGraphs.size();
-	    initIsFromGroups( size );
-	    for( int i = 0; i < size; ++i ) {
-	        Graph graph = totalGraphs.get( i );
-	        for( int j = 0; j < nodeLabels.size(); ++j ) {
-	            for( int k = 0; k < edgeLabels.get(j).size(); ++k ) {
-	                int u = j;
-	                int v = edgeLabels.get(j).get(k);
-	                int w = edgeLabels.get(j).get(k);
-	                if( !graph.hasEdge( u, v, w ) ) {
-	                    isFromGroups[i] = false;
-	                    break;
-                    }
-                }
-                if( !isFromGroups[i] ) {
-	                break;
+	/**
+	 * 计算子图权重中使用的支持度。对每个点j和它的每个邻居v，查询倒排索引中的三元组
+	 * (j, v, v)，求这些图id集合的交集占图总数的比例。这里把点的id和邻居的id当作标号查询，
+	 * 并不是此图在图集中真正的支持度；这是原有实现的算法，子图权重和挖掘结果都依赖它，
+	 * 有意保持不变。子图加边时已有的点和邻接关系不变，查询的三元组只增不减，交集只会变小，
+	 * top-k挖掘的权重上界依赖这一点，见GSpanTool.canImproveTopK
+	 * 
+	 * @param edgeIndex
+	 *            图集的边倒排索引
+	 * @param graphNum
+	 *            图集中图的个数
+	 * @return
+	 */
+	public double getSup(EdgeIndex edgeIndex, int graphNum) {
+	    GraphIdSet ids = null;
+	    for( int j = 0; j < nodeLabels.size(); ++j ) {
+	        for( int k = 0; k < edgeLabels.get(j).size(); ++k ) {
+	            int u = j;
+	            int v = edgeLabels.get(j).get(k);
+	            int w = edgeLabels.get(j).get(k);
+	            GraphIdSet edgeIds = edgeIndex.getGraphIds( u, v, w );
+	            // 交集为空时提前结束
+	            ids = ids == null ? edgeIds : ids.and( edgeIds, 1 );
+	            if( ids == null || ids.isEmpty() ) {
+	                return 0;
                 }
             }
         }
-        int cnt = 0;
-        for( int i = 0; i < size; ++i ) {
-	        if( isFromGroups[i] ) {
-	            cnt += 1;
-            }
-        }
-        return 1.0 * cnt / size;
-    }
-
-    private void initIsFromGroups( int groupsSize ) {
-	    isFromGroups = new boolean[groupsSize];
-	    for( int i = 0; i < groupsSize; ++i ) {
-	        isFromGroups[i] = true;
-        }
+        int cnt = ids == null ? graphNum : ids.cardinality();
+        return 1.0 * cnt / graphNum;
     }
 
     public void initIsVis() {
@@ -174,46 +167,4 @@ public class Graph {
 		}
 
 	}
-
-	/**
-	 * 根据图数据构造一个图
-	 * 
-	 * @param gd
-	 *            图数据
-	 * @return
-	 */
-	public Graph constructGraph(GraphData gd) {
-		Graph graph = new Graph();
-
-		
-		// 构造一个图需要知道3点，
-		// 1.图中有哪些点
-        // 2.图中的每个点周围连着哪些点
-        // 3.每个点周围连着哪些边
-		for (int i = 0; i < gd.getNodeVisibles().size(); i++) {
-			if (gd.getNodeVisibles().get(i)) {
-				graph.getNodeLabels().add(gd.getNodeLabels().get(i));
-			}
-			
-			// 添加对应id下的集合
-			// id节点后有多少相连的边的标号
-			graph.edgeLabels.add(new ArrayList<Integer>());
-			// id节点后有多少相连的节点的id
-			graph.edgeNexts.add(new ArrayList<Integer>());
-		}
-
-		for (int i = 0; i < gd.getEdgeLabels().size(); i++) {
-			if (gd.getEdgeVisibles().get(i)) {
-				// 在此后面添加一个边标号
-				graph.edgeLabels.get(gd.getEdgeX().get(i)).add(gd.getEdgeLabels().get(i));
-				graph.edgeLabels.get(gd.getEdgeY().get(i)).add(gd.getEdgeLabels().get(i));
-				graph.edgeNexts.get(gd.getEdgeX().get(i)).add(
-						gd.getEdgeY().get(i));
-				graph.edgeNexts.get(gd.getEdgeY().get(i)).add(
-						gd.getEdgeX().get(i));
-			}
-		}
-
-		return graph;
-	}
 }
@@ -11,11 +11,12 @@ public class GraphCode {
 	//边的集合，边的排序代表着边的添加次序
 	ArrayList<Edge> edgeSeq;
 	//拥有这些边的图的id
-	ArrayList<Integer> gs;
+	GraphIdSet gs;
+	//编码在各个图中的嵌入，只在使用嵌入拓展时保存
+	ArrayList<Embedding> embeddings;
 	
 	public GraphCode() {
 		this.edgeSeq = new ArrayList<>();
-		this.gs = new ArrayList<>();
 	}
 
 	public ArrayList<Edge> getEdgeSeq() {
@@ -26,11 +27,19 @@ public class GraphCode {
 		this.edgeSeq = edgeSeq;
 	}
 
-	public ArrayList<Integer> getGs() {
+	public GraphIdSet getGs() {
 		return gs;
 	}
 
-	public void setGs(ArrayList<Integer> gs) {
+	public void setGs(GraphIdSet gs) {
 		this.gs = gs;
 	}
+
+	public ArrayList<Embedding> getEmbeddings() {
+		return embeddings;
+	}
+
+	public void setEmbeddings(ArrayList<Embedding> embeddings) {
+		this.embeddings = embeddings;
+	}
 }
@@ -0,0 +1,276 @@
+package DataMining;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 图数据流式读取类，直接从文件通道的字节中解析t/v/e格式，每次返回一个图的数据，
+ * 不需要把整个文件读入内存
+ *
+ * 默认标号为非负整数；给定标号字典时，标号可以是任意不含空白的字符串，读入时用字典编码
+ *
+ * @author cuilijuan
+ *
+ */
+public class GraphDataReader implements Closeable {
+	// 读缓冲区大小
+	private static final int BUFFER_SIZE = 1 << 16;
+	// 文件结束标识
+	private static final int EOF = -1;
+
+	// 文件通道
+	private FileChannel channel;
+	// 读缓冲区
+	private ByteBuffer buffer;
+	// 回退的一个字节，-2代表没有
+	private int pushback = -2;
+	// 正在读取的图数据
+	private GraphData current;
+	// 点标号和边标号的字典，为null时标号按整数读取
+	private LabelDictionary nodeDictionary;
+	private LabelDictionary edgeDictionary;
+	// 读取字符串标号的缓冲
+	private byte[] token = new byte[32];
+	// 还可以读取的字节数，只读取文件的一段时使用
+	private long remaining = Long.MAX_VALUE;
+	// 正在读取的图和最近返回的图的t行在文件中的位置
+	private long currentOffset = -1;
+	private long graphOffset = -1;
+
+	public GraphDataReader(String filePath) throws IOException {
+		this(filePath, null, null);
+	}
+
+	/**
+	 * @param filePath
+	 *            文件地址
+	 * @param nodeDictionary
+	 *            点标号字典，为null时点标号按整数读取
+	 * @param edgeDictionary
+	 *            边标号字典，为null时边标号按整数读取
+	 * @throws IOException
+	 */
+	public GraphDataReader(String filePath, LabelDictionary nodeDictionary,
+			LabelDictionary edgeDictionary) throws IOException {
+		this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.buffer.flip();
+		this.nodeDictionary = nodeDictionary;
+		this.edgeDictionary = edgeDictionary;
+	}
+
+	/**
+	 * 只读取文件中[start, end)的一段，这一段须从某个图的t行开始，在另一个图的t行之前结束
+	 *
+	 * @param filePath
+	 *            文件地址
+	 * @param start
+	 *            起始字节位置
+	 * @param end
+	 *            结束字节位置
+	 * @param nodeDictionary
+	 *            点标号字典，为null时点标号按整数读取
+	 * @param edgeDictionary
+	 *            边标号字典，为null时边标号按整数读取
+	 * @throws IOException
+	 */
+	public GraphDataReader(String filePath, long start, long end,
+			LabelDictionary nodeDictionary, LabelDictionary edgeDictionary) throws IOException {
+		this(filePath, nodeDictionary, edgeDictionary);
+		this.channel.position(start);
+		this.remaining = end - start;
+	}
+
+	/**
+	 * 读取下一个图的数据
+	 *
+	 * @return 图数据，文件读完时返回null
+	 * @throws IOException
+	 */
+	public GraphData next() throws IOException {
+		int c;
+		while ((c = skipBlank(true)) != EOF) {
+			if (c == 't') {
+				// 表示一个图的开始，t即为最后读出的字节
+				long offset = channel.position() - buffer.remaining() - 1;
+				skipLine();
+				GraphData finished = current;
+				graphOffset = currentOffset;
+				current = new GraphData();
+				currentOffset = offset;
+				if (finished != null) {
+					return finished;
+				}
+			} else if (c == 'v') {
+				// v 节点id 点标号，节点id即为读入的次序
+				checkStarted();
+				readInt();
+				current.getNodeLabels().add(readLabel(nodeDictionary));
+				current.getNodeVisibles().add(true);
+				skipLine();
+			} else if (c == 'e') {
+				// e 边的一端id 边的另一端id 边标号
+				checkStarted();
+				current.getEdgeX().add(readInt());
+				current.getEdgeY().add(readInt());
+				current.getEdgeLabels().add(readLabel(edgeDictionary));
+				current.getEdgeVisibles().add(true);
+				skipLine();
+			} else {
+				skipLine();
+			}
+		}
+
+		// 把最后一个图数据返回
+		GraphData finished = current;
+		graphOffset = currentOffset;
+		current = null;
+		return finished;
+	}
+
+	/**
+	 * 最近一次next返回的图的t行在文件中的字节位置，之后可用seek重新读取这个图
+	 */
+	public long getGraphOffset() {
+		return graphOffset;
+	}
+
+	/**
+	 * 跳到文件中某个图的t行，之后的next从这个图开始读取，直到文件末尾
+	 *
+	 * @param offset
+	 *            图的t行的字节位置，见getGraphOffset
+	 * @throws IOException
+	 */
+	public void seek(long offset) throws IOException {
+		channel.position(offset);
+		buffer.clear();
+		buffer.flip();
+		pushback = -2;
+		remaining = Long.MAX_VALUE;
+		current = null;
+		currentOffset = -1;
+		graphOffset = -1;
+	}
+
+	private void checkStarted() throws IOException {
+		if (current == null) {
+			throw new IOException("Malformed graph data, vertex or edge before the first graph");
+		}
+	}
+
+	/**
+	 * 读取一个字节，按无符号数返回，文件结束时返回EOF
+	 */
+	private int read() throws IOException {
+		if (pushback != -2) {
+			int c = pushback;
+			pushback = -2;
+			return c;
+		}
+		if (!buffer.hasRemaining()) {
+			buffer.clear();
+			if (remaining <= 0) {
+				buffer.flip();
+				return EOF;
+			}
+			if (remaining < buffer.capacity()) {
+				buffer.limit((int) remaining);
+			}
+			int n = channel.read(buffer);
+			buffer.flip();
+			if (n <= 0) {
+				return EOF;
+			}
+			remaining -= n;
+		}
+		// 0xFF和0xFE按有符号数会与EOF和回退的空值混淆
+		return buffer.get() & 0xFF;
+	}
+
+	/**
+	 * 跳过空白字符，返回第一个非空白字符
+	 *
+	 * @param crossLine
+	 *            是否跳过换行
+	 */
+	private int skipBlank(boolean crossLine) throws IOException {
+		int c;
+		do {
+			c = read();
+		} while (c == ' ' || c == '\t' || c == '\r'
+				|| (crossLine && c == '\n'));
+		return c;
+	}
+
+	private void skipLine() throws IOException {
+		int c;
+		do {
+			c = read();
+		} while (c != '\n' && c != EOF);
+	}
+
+	/**
+	 * 读取当前行中的下一个整数
+	 */
+	private int readInt() throws IOException {
+		int c = skipBlank(false);
+		boolean negative = false;
+		if (c == '-') {
+			negative = true;
+			c = read();
+		}
+		if (c < '0' || c > '9') {
+			throw new IOException("Malformed graph data, expect a number but got: "
+					+ (c == EOF ? "EOF" : String.valueOf((char) c)));
+		}
+
+		int value = 0;
+		while (c >= '0' && c <= '9') {
+			int d = c - '0';
+			if (value > (Integer.MAX_VALUE - d) / 10) {
+				throw new IOException("Malformed graph data, number out of int range");
+			}
+			value = value * 10 + d;
+			c = read();
+		}
+		pushback = c;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * 读取当前行中的下一个标号，有字典时读取到空白为止的字符串并编码
+	 */
+	private int readLabel(LabelDictionary dictionary) throws IOException {
+		if (dictionary == null) {
+			return readInt();
+		}
+
+		int c = skipBlank(false);
+		int length = 0;
+		while (c != EOF && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+			if (length == token.length) {
+				token = Arrays.copyOf(token, length * 2);
+			}
+			token[length++] = (byte) c;
+			c = read();
+		}
+		pushback = c;
+		if (length == 0) {
+			throw new IOException("Malformed graph data, expect a label but got: "
+					+ (c == EOF ? "EOF" : "end of line"));
+		}
+		return dictionary.encode(new String(token, 0, length, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
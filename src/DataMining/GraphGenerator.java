@@ -0,0 +1,317 @@
+package DataMining;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * 随机图集生成类，输出与GSpanTool读取格式相同的t/v/e文本，用于规模测试
+ *
+ * 每个图先生成随机生成树保证连通，再按密度补充随机边；点和边的标号服从Zipf分布，
+ * 指数为0时为均匀分布；预先生成若干个频繁模式，按给定比例植入到图中。
+ * 相同的参数和随机种子总是生成相同的图集。
+ *
+ * @author cuilijuan
+ *
+ */
+public class GraphGenerator {
+	// 图的个数
+	private int graphNum = 1000;
+	// 每个图的最少点数
+	private int minNodes = 10;
+	// 每个图的最多点数
+	private int maxNodes = 30;
+	// 每个点平均的边数
+	private double density = 1.5;
+	// 点标号的种类数
+	private int nodeLabelNum = 10;
+	// 边标号的种类数
+	private int edgeLabelNum = 5;
+	// 标号Zipf分布的指数
+	private double zipfExponent = 0;
+	// 植入的模式个数
+	private int patternNum = 0;
+	// 每个植入模式的边数
+	private int patternEdges = 4;
+	// 每个模式被植入到图中的比例
+	private double patternRate = 0.2;
+	// 随机种子
+	private long seed = 42;
+
+	// 点标号和边标号的累积分布
+	private double[] nodeLabelCdf;
+	private double[] edgeLabelCdf;
+	private Random random;
+
+	/**
+	 * 生成图集并写入文件
+	 *
+	 * @param filePath
+	 *            输出文件地址
+	 * @throws IOException
+	 */
+	public void generate(String filePath) throws IOException {
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath),
+				StandardCharsets.UTF_8), 1 << 16);
+		try {
+			generate(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * 生成图集并输出
+	 *
+	 * @param out
+	 *            输出
+	 * @throws IOException
+	 */
+	public void generate(Writer out) throws IOException {
+		if (minNodes < 2 || maxNodes < minNodes) {
+			throw new IllegalArgumentException("invalid node range: " + minNodes + ".." + maxNodes);
+		}
+		random = new Random(seed);
+		nodeLabelCdf = zipfCdf(nodeLabelNum);
+		edgeLabelCdf = zipfCdf(edgeLabelNum);
+
+		ArrayList<GraphData> patterns = new ArrayList<>();
+		// 模式的点数在能容纳这些边的最少点数和生成树点数之间
+		int minPatternNodes = 2;
+		while (minPatternNodes * (minPatternNodes - 1) / 2 < patternEdges) {
+			minPatternNodes++;
+		}
+		for (int i = 0; i < patternNum; i++) {
+			int nodes = minPatternNodes
+					+ random.nextInt(Math.max(1, patternEdges + 2 - minPatternNodes));
+			patterns.add(randomGraph(nodes, patternEdges));
+		}
+
+		StringBuilder line = new StringBuilder();
+		for (int g = 0; g < graphNum; g++) {
+			int nodes = minNodes + random.nextInt(maxNodes - minNodes + 1);
+			GraphData gd = randomGraph(nodes, (int) Math.round(nodes * density));
+			for (GraphData pattern : patterns) {
+				if (random.nextDouble() < patternRate) {
+					plant(gd, pattern);
+				}
+			}
+			write(out, line, g, gd);
+		}
+	}
+
+	/**
+	 * 生成一个连通的随机图
+	 *
+	 * @param nodes
+	 *            点数
+	 * @param edges
+	 *            期望的边数，至少为点数减1，至多为完全图的边数
+	 */
+	private GraphData randomGraph(int nodes, int edges) {
+		GraphData gd = new GraphData();
+		edges = Math.max(nodes - 1, Math.min(edges, nodes * (nodes - 1) / 2));
+		HashSet<Long> used = new HashSet<>();
+
+		for (int i = 0; i < nodes; i++) {
+			gd.getNodeLabels().add(sample(nodeLabelCdf));
+			gd.getNodeVisibles().add(true);
+			// 先连成一棵随机生成树
+			if (i > 0) {
+				addEdge(gd, used, random.nextInt(i), i);
+			}
+		}
+		while (gd.getEdgeLabels().size() < edges) {
+			int x = random.nextInt(nodes);
+			int y = random.nextInt(nodes);
+			if (x != y) {
+				addEdge(gd, used, x, y);
+			}
+		}
+
+		return gd;
+	}
+
+	private void addEdge(GraphData gd, HashSet<Long> used, int x, int y) {
+		long key = (long) Math.min(x, y) << 32 | Math.max(x, y);
+		if (!used.add(key)) {
+			return;
+		}
+		gd.getEdgeX().add(x);
+		gd.getEdgeY().add(y);
+		gd.getEdgeLabels().add(sample(edgeLabelCdf));
+		gd.getEdgeVisibles().add(true);
+	}
+
+	/**
+	 * 将模式的点边作为新的点边加入图中，并用一条随机边与原图相连
+	 */
+	private void plant(GraphData gd, GraphData pattern) {
+		int base = gd.getNodeLabels().size();
+		for (int i = 0; i < pattern.getNodeLabels().size(); i++) {
+			gd.getNodeLabels().add(pattern.getNodeLabels().get(i));
+			gd.getNodeVisibles().add(true);
+		}
+		for (int i = 0; i < pattern.getEdgeLabels().size(); i++) {
+			gd.getEdgeX().add(base + pattern.getEdgeX().get(i));
+			gd.getEdgeY().add(base + pattern.getEdgeY().get(i));
+			gd.getEdgeLabels().add(pattern.getEdgeLabels().get(i));
+			gd.getEdgeVisibles().add(true);
+		}
+		if (base > 0) {
+			gd.getEdgeX().add(random.nextInt(base));
+			gd.getEdgeY().add(base + random.nextInt(pattern.getNodeLabels().size()));
+			gd.getEdgeLabels().add(sample(edgeLabelCdf));
+			gd.getEdgeVisibles().add(true);
+		}
+	}
+
+	private void write(Writer out, StringBuilder line, int g, GraphData gd)
+			throws IOException {
+		line.setLength(0);
+		line.append("t # ").append(g).append('\n');
+		for (int i = 0; i < gd.getNodeLabels().size(); i++) {
+			line.append("v ").append(i).append(' ')
+					.append(gd.getNodeLabels().get(i)).append('\n');
+		}
+		for (int i = 0; i < gd.getEdgeLabels().size(); i++) {
+			line.append("e ").append(gd.getEdgeX().get(i)).append(' ')
+					.append(gd.getEdgeY().get(i)).append(' ')
+					.append(gd.getEdgeLabels().get(i)).append('\n');
+		}
+		out.append(line);
+	}
+
+	/**
+	 * 计算标号的Zipf累积分布，排名为k的标号概率正比于1/(k+1)^s
+	 */
+	private double[] zipfCdf(int labelNum) {
+		double[] cdf = new double[labelNum];
+		double sum = 0;
+		for (int i = 0; i < labelNum; i++) {
+			sum += 1.0 / Math.pow(i + 1, zipfExponent);
+			cdf[i] = sum;
+		}
+		for (int i = 0; i < labelNum; i++) {
+			cdf[i] /= sum;
+		}
+		return cdf;
+	}
+
+	private int sample(double[] cdf) {
+		double p = random.nextDouble();
+		int low = 0;
+		int high = cdf.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (cdf[mid] < p) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	public void setGraphNum(int graphNum) {
+		this.graphNum = graphNum;
+	}
+
+	public void setMinNodes(int minNodes) {
+		this.minNodes = minNodes;
+	}
+
+	public void setMaxNodes(int maxNodes) {
+		this.maxNodes = maxNodes;
+	}
+
+	public void setDensity(double density) {
+		this.density = density;
+	}
+
+	public void setNodeLabelNum(int nodeLabelNum) {
+		this.nodeLabelNum = nodeLabelNum;
+	}
+
+	public void setEdgeLabelNum(int edgeLabelNum) {
+		this.edgeLabelNum = edgeLabelNum;
+	}
+
+	public void setZipfExponent(double zipfExponent) {
+		this.zipfExponent = zipfExponent;
+	}
+
+	public void setPatternNum(int patternNum) {
+		this.patternNum = patternNum;
+	}
+
+	public void setPatternEdges(int patternEdges) {
+		this.patternEdges = patternEdges;
+	}
+
+	public void setPatternRate(double patternRate) {
+		this.patternRate = patternRate;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * 命令行生成图集
+	 *
+	 * 参数：输出文件地址 [graphs=N] [minNodes=N] [maxNodes=N] [density=D]
+	 * [nodeLabels=N] [edgeLabels=N] [zipf=S] [patterns=N] [patternEdges=N]
+	 * [patternRate=P] [seed=N]
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: GraphGenerator <output.txt> [graphs=N] [minNodes=N] [maxNodes=N]"
+					+ " [density=D] [nodeLabels=N] [edgeLabels=N] [zipf=S] [patterns=N]"
+					+ " [patternEdges=N] [patternRate=P] [seed=N]");
+			System.exit(1);
+		}
+
+		GraphGenerator generator = new GraphGenerator();
+		for (int i = 1; i < args.length; i++) {
+			String[] kv = args[i].split("=", 2);
+			if (kv.length != 2) {
+				throw new IllegalArgumentException("expect key=value: " + args[i]);
+			}
+			String key = kv[0];
+			String value = kv[1];
+			if (key.equals("graphs")) {
+				generator.setGraphNum(Integer.parseInt(value));
+			} else if (key.equals("minNodes")) {
+				generator.setMinNodes(Integer.parseInt(value));
+			} else if (key.equals("maxNodes")) {
+				generator.setMaxNodes(Integer.parseInt(value));
+			} else if (key.equals("density")) {
+				generator.setDensity(Double.parseDouble(value));
+			} else if (key.equals("nodeLabels")) {
+				generator.setNodeLabelNum(Integer.parseInt(value));
+			} else if (key.equals("edgeLabels")) {
+				generator.setEdgeLabelNum(Integer.parseInt(value));
+			} else if (key.equals("zipf")) {
+				generator.setZipfExponent(Double.parseDouble(value));
+			} else if (key.equals("patterns")) {
+				generator.setPatternNum(Integer.parseInt(value));
+			} else if (key.equals("patternEdges")) {
+				generator.setPatternEdges(Integer.parseInt(value));
+			} else if (key.equals("patternRate")) {
+				generator.setPatternRate(Double.parseDouble(value));
+			} else if (key.equals("seed")) {
+				generator.setSeed(Long.parseLong(value));
+			} else {
+				throw new IllegalArgumentException("unknown option: " + key);
+			}
+		}
+		generator.generate(args[0]);
+	}
+}
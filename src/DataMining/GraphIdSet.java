@@ -0,0 +1,259 @@
+package DataMining;
+
+import java.util.Arrays;
+
+/**
+ * 不可变的图id集合，用于记录子图的支持图
+ *
+ * 按密度选择存储方式：稀疏时为升序的int数组，每个id占32位；稠密时为覆盖整个图集的
+ * long位图，每个图占1位。id个数不少于图总数的1/32时位图更省空间。
+ *
+ * @author cuilijuan
+ *
+ */
+public class GraphIdSet {
+	// 选择位图存储的密度阈值的位移，id个数 >= 图总数 >> DENSE_SHIFT 时使用位图
+	private static final int DENSE_SHIFT = 5;
+	// 空数组
+	private static final int[] EMPTY_IDS = new int[0];
+
+	// 图集中图的总数，id的取值范围为[0, universe)
+	private final int universe;
+	// 集合中id的个数
+	private final int cardinality;
+	// 稀疏存储时的升序id数组，稠密存储时为null
+	private final int[] ids;
+	// 稠密存储时的位图，稀疏存储时为null
+	private final long[] words;
+
+	private GraphIdSet(int universe, int cardinality, int[] ids, long[] words) {
+		this.universe = universe;
+		this.cardinality = cardinality;
+		this.ids = ids;
+		this.words = words;
+	}
+
+	/**
+	 * 空集合
+	 */
+	public static GraphIdSet empty(int universe) {
+		return new GraphIdSet(universe, 0, EMPTY_IDS, null);
+	}
+
+	/**
+	 * 由升序且不重复的id数组构造集合
+	 *
+	 * @param sortedIds
+	 *            升序id数组，只使用前count个
+	 * @param count
+	 *            id的个数
+	 * @param universe
+	 *            图的总数
+	 */
+	public static GraphIdSet of(int[] sortedIds, int count, int universe) {
+		if (count >= universe >> DENSE_SHIFT && count > 0) {
+			long[] words = new long[wordNum(universe)];
+			for (int i = 0; i < count; i++) {
+				words[sortedIds[i] >>> 6] |= 1L << sortedIds[i];
+			}
+			return new GraphIdSet(universe, count, null, words);
+		}
+		return new GraphIdSet(universe, count,
+				count == sortedIds.length ? sortedIds : Arrays.copyOf(sortedIds, count), null);
+	}
+
+	private static int wordNum(int universe) {
+		return (universe + 63) >>> 6;
+	}
+
+	/**
+	 * 集合中id的个数，即支持度计数
+	 */
+	public int cardinality() {
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return cardinality == 0;
+	}
+
+	public int getUniverse() {
+		return universe;
+	}
+
+	/**
+	 * 是否为位图存储
+	 */
+	public boolean isDense() {
+		return words != null;
+	}
+
+	public boolean contains(int id) {
+		if (id < 0 || id >= universe) {
+			return false;
+		}
+		if (words != null) {
+			return (words[id >>> 6] & (1L << id)) != 0;
+		}
+		return Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	/**
+	 * 以升序数组的形式返回全部id，稀疏存储时返回内部数组，不可修改
+	 */
+	public int[] toArray() {
+		if (words == null) {
+			return ids;
+		}
+
+		int[] result = new int[cardinality];
+		int count = 0;
+		for (int w = 0; w < words.length; w++) {
+			long word = words[w];
+			while (word != 0) {
+				result[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 求两个集合的交集
+	 */
+	public GraphIdSet and(GraphIdSet other) {
+		return and(other, 0);
+	}
+
+	/**
+	 * 求两个集合的交集，当交集的大小已经不可能达到minCount时提前结束
+	 *
+	 * @param other
+	 *            另一个集合，图总数需相同
+	 * @param minCount
+	 *            交集需要达到的最小个数，通常为最小支持度计数
+	 * @return 交集，达不到minCount时返回null
+	 */
+	public GraphIdSet and(GraphIdSet other, int minCount) {
+		if (universe != other.universe) {
+			throw new IllegalArgumentException("graph id sets over different universes: "
+					+ universe + " and " + other.universe);
+		}
+		if (Math.min(cardinality, other.cardinality) < minCount) {
+			return null;
+		}
+
+		if (words != null && other.words != null) {
+			return andWords(words, cardinality, other.words, other.cardinality, minCount);
+		} else if (words != null) {
+			return andIdsWords(other.ids, words, minCount);
+		} else if (other.words != null) {
+			return andIdsWords(ids, other.words, minCount);
+		}
+		return andIds(ids, other.ids, minCount);
+	}
+
+	/**
+	 * 两个升序数组的归并求交，剩余的较短一方不足以补足个数时停止
+	 */
+	private GraphIdSet andIds(int[] ids1, int[] ids2, int minCount) {
+		int[] result = new int[Math.min(ids1.length, ids2.length)];
+		int i = 0;
+		int j = 0;
+		int count = 0;
+
+		while (i < ids1.length && j < ids2.length) {
+			if (count + Math.min(ids1.length - i, ids2.length - j) < minCount) {
+				return null;
+			}
+			if (ids1[i] < ids2[j]) {
+				i++;
+			} else if (ids1[i] > ids2[j]) {
+				j++;
+			} else {
+				result[count++] = ids1[i];
+				i++;
+				j++;
+			}
+		}
+
+		return count < minCount ? null : of(result, count, universe);
+	}
+
+	/**
+	 * 数组中的id逐个在位图中查找
+	 */
+	private GraphIdSet andIdsWords(int[] ids1, long[] words2, int minCount) {
+		int[] result = new int[ids1.length];
+		int count = 0;
+
+		for (int i = 0; i < ids1.length; i++) {
+			if (count + ids1.length - i < minCount) {
+				return null;
+			}
+			if ((words2[ids1[i] >>> 6] & (1L << ids1[i])) != 0) {
+				result[count++] = ids1[i];
+			}
+		}
+
+		return count < minCount ? null : of(result, count, universe);
+	}
+
+	/**
+	 * 两个位图按字求与，记录双方剩余的id个数作为上界
+	 */
+	private GraphIdSet andWords(long[] words1, int remain1, long[] words2, int remain2,
+			int minCount) {
+		long[] result = new long[words1.length];
+		int count = 0;
+
+		for (int w = 0; w < words1.length; w++) {
+			if (count + Math.min(remain1, remain2) < minCount) {
+				return null;
+			}
+			result[w] = words1[w] & words2[w];
+			count += Long.bitCount(result[w]);
+			remain1 -= Long.bitCount(words1[w]);
+			remain2 -= Long.bitCount(words2[w]);
+		}
+		if (count < minCount) {
+			return null;
+		}
+
+		if (count >= universe >> DENSE_SHIFT) {
+			return new GraphIdSet(universe, count, null, result);
+		}
+		// 交集变得稀疏时转为数组存储
+		return new GraphIdSet(universe, count, null, result).compact();
+	}
+
+	/**
+	 * 位图转为数组存储
+	 */
+	private GraphIdSet compact() {
+		return new GraphIdSet(universe, cardinality, toArray(), null);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GraphIdSet)) {
+			return false;
+		}
+		GraphIdSet other = (GraphIdSet) obj;
+		return universe == other.universe && cardinality == other.cardinality
+				&& Arrays.equals(toArray(), other.toArray());
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * universe + Arrays.hashCode(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
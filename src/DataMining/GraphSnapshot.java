@@ -0,0 +1,339 @@
+package DataMining;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * 预处理后图集的二进制快照，保存移除不频繁点边并重新标号之后的CSR图结构，
+ * 以及标号频度和排名，载入时按窗口依次内存映射，每个窗口不超过1GB，快照可以超过2GB
+ * 
+ * 文件格式，全部为大端int：
+ * 魔数、版本号、图的个数、剪枝时的支持度数、标号表长度，
+ * 点标号频度、边标号频度、点标号排名、边标号排名，
+ * 点标号字典和边标号字典（标号个数，没有字典时为-1，之后每个标号为UTF-8字节数和按4字节补齐的字节），
+ * 之后每个图依次为：点数、相邻点总数、点标号组、offsets、neighbors、edgeLabels。
+ * 版本1的快照没有标号字典。写入时先写临时文件再替换，写到一半失败时原有快照保持不变
+ * 
+ * @author cuilijuan
+ * 
+ */
+public class GraphSnapshot {
+	// 快照文件的魔数 "GSPS"
+	public static final int MAGIC = 0x47535053;
+	// 快照格式的版本号
+	public static final int VERSION = 2;
+	// 读取时每次映射的字节数，为4的倍数
+	static final int WINDOW_BYTES = 1 << 30;
+
+	// 预处理后的图集
+	private ArrayList<CsrGraph> graphs;
+	// 移除不频繁点边时使用的支持度数
+	private int supportCount;
+	// 原始点标号的频度
+	private int[] freqNodeLabel;
+	// 原始边标号的频度
+	private int[] freqEdgeLabel;
+	// 点标号的排序名次
+	private int[] rankNodeLabels;
+	// 边标号的排序名次
+	private int[] rankEdgeLabels;
+	// 点标号和边标号的字典，按重新标号后的编码排列，标号为整数时为null
+	private LabelDictionary nodeLabelDictionary;
+	private LabelDictionary edgeLabelDictionary;
+
+	public GraphSnapshot(ArrayList<CsrGraph> graphs, int supportCount,
+			int[] freqNodeLabel, int[] freqEdgeLabel, int[] rankNodeLabels,
+			int[] rankEdgeLabels) {
+		this.graphs = graphs;
+		this.supportCount = supportCount;
+		this.freqNodeLabel = freqNodeLabel;
+		this.freqEdgeLabel = freqEdgeLabel;
+		this.rankNodeLabels = rankNodeLabels;
+		this.rankEdgeLabels = rankEdgeLabels;
+	}
+
+	public ArrayList<CsrGraph> getGraphs() {
+		return graphs;
+	}
+
+	public int getSupportCount() {
+		return supportCount;
+	}
+
+	public int[] getFreqNodeLabel() {
+		return freqNodeLabel;
+	}
+
+	public int[] getFreqEdgeLabel() {
+		return freqEdgeLabel;
+	}
+
+	public int[] getRankNodeLabels() {
+		return rankNodeLabels;
+	}
+
+	public int[] getRankEdgeLabels() {
+		return rankEdgeLabels;
+	}
+
+	public LabelDictionary getNodeLabelDictionary() {
+		return nodeLabelDictionary;
+	}
+
+	public LabelDictionary getEdgeLabelDictionary() {
+		return edgeLabelDictionary;
+	}
+
+	/**
+	 * 设置标号字典，字典的编码须为重新标号后的编码
+	 */
+	public void setLabelDictionaries(LabelDictionary nodeLabelDictionary,
+			LabelDictionary edgeLabelDictionary) {
+		this.nodeLabelDictionary = nodeLabelDictionary;
+		this.edgeLabelDictionary = edgeLabelDictionary;
+	}
+
+	/**
+	 * 将快照写入文件
+	 * 
+	 * @param snapshotPath
+	 *            快照文件地址
+	 * @throws IOException
+	 */
+	public void write(String snapshotPath) throws IOException {
+		File temp = new File(snapshotPath + ".tmp");
+		try (FileOutputStream file = new FileOutputStream(temp)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(graphs.size());
+			out.writeInt(supportCount);
+			out.writeInt(freqNodeLabel.length);
+			writeInts(out, freqNodeLabel);
+			writeInts(out, freqEdgeLabel);
+			writeInts(out, rankNodeLabels);
+			writeInts(out, rankEdgeLabels);
+			writeDictionary(out, nodeLabelDictionary);
+			writeDictionary(out, edgeLabelDictionary);
+
+			for (CsrGraph graph : graphs) {
+				out.writeInt(graph.nodeLabels.length);
+				out.writeInt(graph.neighbors.length);
+				writeInts(out, graph.nodeLabels);
+				writeInts(out, graph.offsets);
+				writeInts(out, graph.neighbors);
+				writeInts(out, graph.edgeLabels);
+			}
+			out.flush();
+			file.getFD().sync();
+		}
+		Files.move(temp.toPath(), Paths.get(snapshotPath), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void writeInts(DataOutputStream out, int[] array)
+			throws IOException {
+		for (int value : array) {
+			out.writeInt(value);
+		}
+	}
+
+	private static void writeDictionary(DataOutputStream out, LabelDictionary dictionary)
+			throws IOException {
+		if (dictionary == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(dictionary.size());
+		for (int i = 0; i < dictionary.size(); i++) {
+			byte[] bytes = dictionary.decode(i).getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+			// 补齐到4字节，保证之后的内容仍可按int读取
+			for (int j = bytes.length; j % 4 != 0; j++) {
+				out.writeByte(0);
+			}
+		}
+	}
+
+	private static LabelDictionary readDictionary(IntReader in) throws IOException {
+		int size = in.get();
+		if (size < 0) {
+			return null;
+		}
+		LabelDictionary dictionary = new LabelDictionary();
+		for (int i = 0; i < size; i++) {
+			byte[] bytes = new byte[in.get()];
+			int[] words = readInts(in, (bytes.length + 3) / 4);
+			for (int j = 0; j < bytes.length; j++) {
+				bytes[j] = (byte) (words[j / 4] >>> (24 - 8 * (j % 4)));
+			}
+			dictionary.encode(new String(bytes, StandardCharsets.UTF_8));
+		}
+		return dictionary;
+	}
+
+	/**
+	 * 以内存映射的方式读取快照
+	 * 
+	 * @param snapshotPath
+	 *            快照文件地址
+	 * @return
+	 * @throws IOException
+	 */
+	public static GraphSnapshot read(String snapshotPath) throws IOException {
+		return read(snapshotPath, WINDOW_BYTES);
+	}
+
+	/**
+	 * @param windowBytes
+	 *            每次映射的字节数，为4的倍数
+	 */
+	static GraphSnapshot read(String snapshotPath, int windowBytes) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(snapshotPath),
+				StandardOpenOption.READ);
+		try {
+			IntReader in = new IntReader(channel, windowBytes);
+			if (channel.size() < 20 || in.get() != MAGIC) {
+				throw new IOException("Not a graph snapshot: " + snapshotPath);
+			}
+			int version = in.get();
+			if (version != VERSION && version != 1) {
+				throw new IOException("Unsupported snapshot version " + version
+						+ ": " + snapshotPath);
+			}
+
+			int graphNum = in.get();
+			int supportCount = in.get();
+			int labelNum = in.get();
+			int[] freqNodeLabel = readInts(in, labelNum);
+			int[] freqEdgeLabel = readInts(in, labelNum);
+			int[] rankNodeLabels = readInts(in, labelNum);
+			int[] rankEdgeLabels = readInts(in, labelNum);
+			LabelDictionary nodeLabelDictionary = null;
+			LabelDictionary edgeLabelDictionary = null;
+			if (version >= 2) {
+				nodeLabelDictionary = readDictionary(in);
+				edgeLabelDictionary = readDictionary(in);
+			}
+
+			ArrayList<CsrGraph> graphs = new ArrayList<>(graphNum);
+			for (int i = 0; i < graphNum; i++) {
+				int nodeNum = in.get();
+				int neighborNum = in.get();
+				int[] nodeLabels = readInts(in, nodeNum);
+				int[] offsets = readInts(in, nodeNum + 1);
+				int[] neighbors = readInts(in, neighborNum);
+				int[] edgeLabels = readInts(in, neighborNum);
+				graphs.add(new CsrGraph(nodeLabels, offsets, neighbors, edgeLabels));
+			}
+
+			GraphSnapshot snapshot = new GraphSnapshot(graphs, supportCount, freqNodeLabel,
+					freqEdgeLabel, rankNodeLabels, rankEdgeLabels);
+			snapshot.setLabelDictionaries(nodeLabelDictionary, edgeLabelDictionary);
+			return snapshot;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated graph snapshot: " + snapshotPath, e);
+		} finally {
+			channel.close();
+		}
+	}
+
+	private static int[] readInts(IntReader in, int length) throws IOException {
+		int[] array = new int[length];
+		in.get(array);
+		return array;
+	}
+
+	/**
+	 * 按窗口依次内存映射文件，顺序读取int，数组可以跨越窗口的边界
+	 */
+	private static class IntReader {
+		private final FileChannel channel;
+		private final int windowBytes;
+		// 当前窗口在文件中的起始位置
+		private long windowStart = 0;
+		// 当前窗口
+		private IntBuffer window;
+
+		IntReader(FileChannel channel, int windowBytes) throws IOException {
+			if (windowBytes <= 0 || windowBytes % 4 != 0) {
+				throw new IllegalArgumentException("window must be a positive multiple of 4: "
+						+ windowBytes);
+			}
+			this.channel = channel;
+			this.windowBytes = windowBytes;
+			map();
+		}
+
+		private void map() throws IOException {
+			long length = Math.min(windowBytes, channel.size() - windowStart);
+			window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length)
+					.asIntBuffer();
+		}
+
+		/**
+		 * 当前窗口读完时映射下一个窗口，文件已读完时抛出BufferUnderflowException
+		 */
+		private void ensureRemaining() throws IOException {
+			if (window.hasRemaining()) {
+				return;
+			}
+			long next = windowStart + (long) window.capacity() * 4;
+			if (window.capacity() * 4 < windowBytes || next >= channel.size()) {
+				throw new BufferUnderflowException();
+			}
+			windowStart = next;
+			map();
+		}
+
+		int get() throws IOException {
+			ensureRemaining();
+			return window.get();
+		}
+
+		void get(int[] array) throws IOException {
+			int offset = 0;
+			while (offset < array.length) {
+				ensureRemaining();
+				int n = Math.min(window.remaining(), array.length - offset);
+				window.get(array, offset, n);
+				offset += n;
+			}
+		}
+	}
+
+	/**
+	 * 将t/v/e格式的文本图集转换为快照
+	 * 
+	 * 参数：[-dict] 文本图集地址 最小支持度率 快照文件地址，快照可用于不低于此支持度率的挖掘。
+	 * 给出-dict时标号按字符串读入，并把标号字典写入快照，否则标号须为整数
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean dictionary = args.length > 0 && args[0].equals("-dict");
+		int first = dictionary ? 1 : 0;
+		if (args.length - first != 3) {
+			System.err.println(
+					"Usage: GraphSnapshot [-dict] <input.txt> <minSupportRate> <output.snapshot>");
+			System.exit(1);
+		}
+
+		String filePath = args[first];
+		double minSupportRate = Double.parseDouble(args[first + 1]);
+		GSpanTool tool = dictionary ? GSpanTool.withLabelDictionary(filePath, minSupportRate, 1)
+				: new GSpanTool(filePath, minSupportRate);
+		tool.writeSnapshot(args[first + 2]);
+	}
+}
@@ -0,0 +1,557 @@
+package DataMining;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+/**
+ * 增量频繁子图挖掘，图集文件只在末尾追加新的图时，只挖掘新追加的图，不必重新挖掘整个图集
+ *
+ * 频繁子图和它们的支持图id保存在PatternStore中，同时保存频繁子图的不频繁孩子编码
+ * （边界子图）及其支持图id。追加一批图之后：
+ * 1.沿保存的挖掘树遍历仍然频繁的子图，只在新图中拓展孩子边，孩子编码的支持图为保存的
+ * 旧图id加上新图中的id，支持度按新的图总数重新判断；
+ * 2.新变得频繁的编码一定是某个频繁子图的孩子编码，即原有的边界子图或只出现在新图中的编码，
+ * 它的子树只可能出现在它自己的支持图中，只需读入这些旧图和新图挖掘它的子树。
+ * 因此每次更新只处理新图，以及新变得频繁的边界子图的支持图，不再扫描整个图集。
+ * 但PatternStore每次更新都整体读入并重写，包括每个结点的全部支持图id，这部分的开销与
+ * 所有保存结点的支持度之和成正比，随图集变大而增长，图集很大而新图很少时会占主要部分。
+ *
+ * 与GSpanTool不同，这里求的是支持度不低于阈值的全部频繁子图，不按权重过滤：权重依赖整个
+ * 图集的标号统计，追加图之后会改变。标号按第一次出现的次序编码，不按频度重新标号，
+ * 保证已保存的编码在之后的更新中保持为最小编码。
+ *
+ * @author cuilijuan
+ *
+ */
+public class IncrementalMiner {
+	// 图集文件地址，新的图追加在文件末尾
+	private String databasePath;
+	// 保存频繁子图的文件地址
+	private String storePath;
+	// 保存的频繁子图，第一次更新前为空
+	private PatternStore store;
+	// 最小支持度率
+	private double minSupportRate;
+	// 子图的最大边数，新建时有效，之后以保存的为准
+	private int maxEdges = Integer.MAX_VALUE;
+	// 子图的最大点数
+	private int maxNodes = Integer.MAX_VALUE;
+
+	// 以下为一次更新的状态
+	// 更新前的图个数，新图的id从此开始
+	private int oldGraphNum;
+	// 更新后的图个数
+	private int graphNum;
+	// 更新后的最小支持度计数
+	private int minSupportCount;
+	// 新追加的图，id为oldGraphNum加上下标
+	private ArrayList<CsrGraph> newGraphs;
+	// 挖掘新变得频繁的子图时读入的旧图
+	private HashMap<Integer, CsrGraph> oldGraphs;
+	// 新变得频繁、需要挖掘子树的编码
+	private ArrayList<Promotion> promotions;
+	// 最小编码判断对象
+	private DFSCodeTraveler minCodeTraveler = new DFSCodeTraveler();
+	// 最近一次更新新变得频繁的编码个数
+	private int promotedCount;
+	// 最近一次更新读入的旧图个数
+	private int loadedGraphCount;
+
+	/**
+	 * 新变得频繁的编码
+	 */
+	private static class Promotion {
+		// 挖掘树中的结点，子树待挖掘
+		final PatternStore.Node node;
+		// 结点的编码
+		final ArrayList<Edge> edgeSeq;
+
+		Promotion(PatternStore.Node node, ArrayList<Edge> edgeSeq) {
+			this.node = node;
+			this.edgeSeq = edgeSeq;
+		}
+	}
+
+	/**
+	 * 打开增量挖掘，保存文件存在时载入，最小支持度率须与保存的一致
+	 *
+	 * @param databasePath
+	 *            图集文件地址
+	 * @param storePath
+	 *            保存频繁子图的文件地址
+	 * @param minSupportRate
+	 *            最小支持度率
+	 * @throws IOException
+	 */
+	public IncrementalMiner(String databasePath, String storePath, double minSupportRate)
+			throws IOException {
+		this.databasePath = databasePath;
+		this.storePath = storePath;
+		this.minSupportRate = minSupportRate;
+		store = loadStore();
+	}
+
+	/**
+	 * 载入保存的频繁子图，文件不存在时返回null
+	 */
+	private PatternStore loadStore() throws IOException {
+		if (!new File(storePath).exists()) {
+			return null;
+		}
+		PatternStore loaded = PatternStore.read(storePath);
+		if (Double.compare(loaded.getMinSupportRate(), minSupportRate) != 0) {
+			throw new IllegalStateException(MessageFormat.format(
+					"pattern store {0} was mined at support rate {1}, not {2}", storePath,
+					loaded.getMinSupportRate(), minSupportRate));
+		}
+		return loaded;
+	}
+
+	public int getMaxEdges() {
+		return store != null ? store.getMaxEdges() : maxEdges;
+	}
+
+	/**
+	 * 设置子图的最大边数，只能在第一次更新前设置
+	 */
+	public void setMaxEdges(int maxEdges) {
+		checkNotStarted();
+		if (maxEdges < 1) {
+			throw new IllegalArgumentException("maxEdges must be positive: " + maxEdges);
+		}
+		this.maxEdges = maxEdges;
+	}
+
+	public int getMaxNodes() {
+		return store != null ? store.getMaxNodes() : maxNodes;
+	}
+
+	/**
+	 * 设置子图的最大点数，只能在第一次更新前设置
+	 */
+	public void setMaxNodes(int maxNodes) {
+		checkNotStarted();
+		if (maxNodes < 2) {
+			throw new IllegalArgumentException("maxNodes must be at least 2: " + maxNodes);
+		}
+		this.maxNodes = maxNodes;
+	}
+
+	private void checkNotStarted() {
+		if (store != null) {
+			throw new IllegalStateException(
+					"mining limits are fixed once the pattern store has been written");
+		}
+	}
+
+	/**
+	 * 图的总数
+	 */
+	public int getGraphNum() {
+		return store != null ? store.getGraphNum() : 0;
+	}
+
+	/**
+	 * 频繁子图的个数
+	 */
+	public int getFrequentCount() {
+		return store != null ? store.getFrequentCount() : 0;
+	}
+
+	/**
+	 * 最近一次更新新变得频繁、重新挖掘了子树的编码个数
+	 */
+	public int getPromotedCount() {
+		return promotedCount;
+	}
+
+	/**
+	 * 最近一次更新为挖掘新变得频繁的子图而读入的旧图个数
+	 */
+	public int getLoadedGraphCount() {
+		return loadedGraphCount;
+	}
+
+	/**
+	 * 点标号字典，频繁子图中的点标号为它的编码
+	 */
+	public LabelDictionary getNodeLabelDictionary() {
+		return store != null ? store.getNodeDictionary() : null;
+	}
+
+	public LabelDictionary getEdgeLabelDictionary() {
+		return store != null ? store.getEdgeDictionary() : null;
+	}
+
+	/**
+	 * 读入上次更新之后追加到图集文件中的图，更新频繁子图并保存
+	 *
+	 * @return 新追加的图的个数
+	 * @throws IOException
+	 */
+	public int update() throws IOException {
+		if (store == null) {
+			// 上次更新失败时在这里重新载入
+			store = loadStore();
+		}
+		if (store == null) {
+			store = new PatternStore(minSupportRate, maxEdges, maxNodes);
+		}
+		long length = checkDatabase();
+
+		oldGraphNum = store.getGraphNum();
+		try {
+			newGraphs = readNewGraphs(length);
+			graphNum = store.getGraphNum();
+			minSupportCount = Math.max(1, (int) (minSupportRate * graphNum));
+			oldGraphs = new HashMap<>();
+			promotions = new ArrayList<>();
+
+			// 沿原有的挖掘树在新图中拓展
+			int[] newIds = new int[newGraphs.size()];
+			for (int i = 0; i < newIds.length; i++) {
+				newIds[i] = oldGraphNum + i;
+			}
+			PatternStore.Node root = new PatternStore.Node(null, 0, newIds, true);
+			updateChildren(store.getRoot(), root, new ArrayList<Edge>(), newIds);
+
+			// 读入新变得频繁的编码的旧支持图，挖掘它们的子树
+			loadOldGraphs();
+			for (Promotion promotion : promotions) {
+				mineChildren(promotion.node, promotion.edgeSeq);
+			}
+			promotedCount = promotions.size();
+			loadedGraphCount = oldGraphs.size();
+
+			store.setRoot(root);
+			store.setDatabaseLength(length);
+			store.write(storePath);
+		} catch (Throwable e) {
+			// 读入新图时图的位置和新标号已经加入了store，丢弃内存中的状态，
+			// 恢复为上次保存的文件，重试时新图不会被重复加入
+			store = null;
+			try {
+				store = loadStore();
+			} catch (IOException | RuntimeException reloadError) {
+				e.addSuppressed(reloadError);
+			}
+			throw e;
+		} finally {
+			newGraphs = null;
+			oldGraphs = null;
+			promotions = null;
+		}
+		return graphNum - oldGraphNum;
+	}
+
+	/**
+	 * 检查图集文件只在末尾追加过内容
+	 *
+	 * @return 当前的文件长度
+	 */
+	private long checkDatabase() throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(databasePath),
+				StandardOpenOption.READ)) {
+			long length = channel.size();
+			boolean appended = length >= store.getDatabaseLength();
+			if (appended && store.getGraphNum() > 0) {
+				// 最后一个已处理的图仍应在原来的位置
+				ByteBuffer b = ByteBuffer.allocate(1);
+				channel.read(b, store.getGraphOffset(store.getGraphNum() - 1));
+				appended = b.position() == 1 && b.get(0) == 't';
+			}
+			if (!appended) {
+				throw new IllegalStateException("graph database " + databasePath
+						+ " was modified, not only appended, since the pattern store was written");
+			}
+			return length;
+		}
+	}
+
+	/**
+	 * 读入上次处理的位置之后追加的图，记录它们的位置
+	 */
+	private ArrayList<CsrGraph> readNewGraphs(long length) throws IOException {
+		ArrayList<CsrGraph> graphs = new ArrayList<>();
+		long start = store.getDatabaseLength();
+		if (length == start) {
+			return graphs;
+		}
+		try (GraphDataReader reader = new GraphDataReader(databasePath, start, length,
+				store.getNodeDictionary(), store.getEdgeDictionary())) {
+			GraphData gd;
+			while ((gd = reader.next()) != null) {
+				graphs.add(CsrGraph.constructGraph(gd));
+				store.addGraph(reader.getGraphOffset());
+			}
+		}
+		return graphs;
+	}
+
+	/**
+	 * 读入新变得频繁的编码的全部旧支持图
+	 */
+	private void loadOldGraphs() throws IOException {
+		// 按id排序，读文件时只向后移动
+		TreeSet<Integer> ids = new TreeSet<>();
+		for (Promotion promotion : promotions) {
+			for (int id : promotion.node.graphIds) {
+				if (id >= oldGraphNum) {
+					break;
+				}
+				ids.add(id);
+			}
+		}
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		try (GraphDataReader reader = new GraphDataReader(databasePath,
+				store.getNodeDictionary(), store.getEdgeDictionary())) {
+			for (int id : ids) {
+				reader.seek(store.getGraphOffset(id));
+				oldGraphs.put(id, CsrGraph.constructGraph(reader.next()));
+			}
+		}
+	}
+
+	private CsrGraph getGraph(int id) {
+		return id >= oldGraphNum ? newGraphs.get(id - oldGraphNum) : oldGraphs.get(id);
+	}
+
+	/**
+	 * 更新仍然频繁的旧编码的孩子：保存的孩子加上在新图中拓展出的孩子
+	 *
+	 * @param old
+	 *            保存的结点
+	 * @param updated
+	 *            更新后的结点，孩子在此加入
+	 * @param edgeSeq
+	 *            结点的编码
+	 * @param newIds
+	 *            新图中拥有此编码的图id
+	 */
+	private void updateChildren(PatternStore.Node old, PatternStore.Node updated,
+			ArrayList<Edge> edgeSeq, int[] newIds) {
+		if (edgeSeq.size() >= store.getMaxEdges()) {
+			return;
+		}
+
+		// 保存的孩子，以五元组为键
+		HashMap<Long, PatternStore.Node> oldChildren = new HashMap<>();
+		for (PatternStore.Node child : old.children) {
+			oldChildren.put(edgeKey(child.edge), child);
+		}
+		ChildEdgeMap newChildren = collectChildEdges(edgeSeq, newIds);
+
+		// 合并两边的孩子，按五元组的键排列即为DFS编码次序
+		HashMap<Long, Integer> newEntries = new HashMap<>();
+		long[] keys = new long[oldChildren.size() + newChildren.size()];
+		int keyNum = 0;
+		for (long key : oldChildren.keySet()) {
+			keys[keyNum++] = key;
+		}
+		for (int entry = 0; entry < newChildren.size(); entry++) {
+			long key = edgeKey(newChildren.getEdge(entry));
+			newEntries.put(key, entry);
+			if (!oldChildren.containsKey(key)) {
+				keys[keyNum++] = key;
+			}
+		}
+		Arrays.sort(keys, 0, keyNum);
+
+		for (int i = 0; i < keyNum; i++) {
+			PatternStore.Node oldChild = oldChildren.get(keys[i]);
+			Integer entry = newEntries.get(keys[i]);
+			Edge e = oldChild != null ? oldChild.edge : newChildren.getEdge(entry);
+			int next = childNext(e, updated.nodeNum);
+			edgeSeq.add(e);
+			// 保存的孩子已是满足限制的最小编码
+			if (oldChild != null || isAllowed(edgeSeq, e, updated.nodeNum, next)) {
+				int[] childNewIds = entry != null ? newChildren.getGraphIds(entry).toArray()
+						: PatternStore.EMPTY_IDS;
+				// 旧图id都小于新图id，直接相接即为升序
+				int[] ids = concat(oldChild != null ? oldChild.graphIds : PatternStore.EMPTY_IDS,
+						childNewIds);
+				boolean frequent = ids.length >= minSupportCount;
+				PatternStore.Node child = new PatternStore.Node(e, next, ids, frequent);
+				updated.children.add(child);
+				if (frequent && oldChild != null && oldChild.frequent) {
+					updateChildren(oldChild, child, edgeSeq, childNewIds);
+				} else if (frequent) {
+					// 原来不频繁，子树在读入旧支持图之后挖掘
+					promotions.add(new Promotion(child, new ArrayList<>(edgeSeq)));
+				}
+			}
+			edgeSeq.remove(edgeSeq.size() - 1);
+		}
+	}
+
+	/**
+	 * 在全部支持图中挖掘新变得频繁的编码的子树
+	 *
+	 * @param node
+	 *            频繁的结点，支持图id是完整的
+	 * @param edgeSeq
+	 *            结点的编码
+	 */
+	private void mineChildren(PatternStore.Node node, ArrayList<Edge> edgeSeq) {
+		if (edgeSeq.size() >= store.getMaxEdges()) {
+			return;
+		}
+
+		ChildEdgeMap childEdges = collectChildEdges(edgeSeq, node.graphIds);
+		for (int entry : childEdges.sortedEntries()) {
+			Edge e = childEdges.getEdge(entry);
+			int next = childNext(e, node.nodeNum);
+			edgeSeq.add(e);
+			if (isAllowed(edgeSeq, e, node.nodeNum, next)) {
+				int[] ids = childEdges.getGraphIds(entry).toArray();
+				boolean frequent = ids.length >= minSupportCount;
+				PatternStore.Node child = new PatternStore.Node(e, next, ids, frequent);
+				node.children.add(child);
+				if (frequent) {
+					mineChildren(child, edgeSeq);
+				}
+			}
+			edgeSeq.remove(edgeSeq.size() - 1);
+		}
+	}
+
+	/**
+	 * 在给定的图中找出编码的全部孩子边，空编码的孩子边为图中的每条单边
+	 *
+	 * @param edgeSeq
+	 *            编码
+	 * @param ids
+	 *            升序的图id
+	 */
+	private ChildEdgeMap collectChildEdges(ArrayList<Edge> edgeSeq, int[] ids) {
+		ChildEdgeMap childEdges = new ChildEdgeMap(graphNum, false);
+		for (int id : ids) {
+			CsrGraph graph = getGraph(id);
+			if (edgeSeq.isEmpty()) {
+				for (int u = 0; u < graph.nodeNum(); u++) {
+					for (int i = graph.offsets[u]; i < graph.offsets[u + 1]; i++) {
+						childEdges.add(new Edge(0, 1, graph.nodeLabels[u], graph.edgeLabels[i],
+								graph.nodeLabels[graph.neighbors[i]]), id);
+					}
+				}
+			} else if (graph.edgeNum() > edgeSeq.size()) {
+				SubChildTraveler sct = new SubChildTraveler(edgeSeq, graph);
+				sct.traveler();
+				for (Edge e : sct.getResultChildEdge()) {
+					childEdges.add(e, id);
+				}
+			}
+		}
+		return childEdges;
+	}
+
+	/**
+	 * 孩子编码是否满足最大点数限制且为最小编码
+	 */
+	private boolean isAllowed(ArrayList<Edge> edgeSeq, Edge e, int parentNext, int next) {
+		if (e.ix < e.iy && parentNext >= store.getMaxNodes()) {
+			// 前向边会增加一个点
+			return false;
+		}
+		return minCodeTraveler.traveler(edgeSeq, next);
+	}
+
+	/**
+	 * 孩子编码所含的点的个数，单边编码含两个点
+	 */
+	private static int childNext(Edge e, int next) {
+		if (next == 0) {
+			return 2;
+		}
+		return e.iy == next ? next + 1 : next;
+	}
+
+	private static long edgeKey(Edge e) {
+		return ChildEdgeMap.toKey(e.ix, e.iy, e.x, e.a, e.y);
+	}
+
+	private static int[] concat(int[] ids1, int[] ids2) {
+		if (ids1.length == 0) {
+			return ids2;
+		}
+		if (ids2.length == 0) {
+			return ids1;
+		}
+		int[] ids = Arrays.copyOf(ids1, ids1.length + ids2.length);
+		System.arraycopy(ids2, 0, ids, ids1.length, ids2.length);
+		return ids;
+	}
+
+	/**
+	 * 按挖掘树的先序把全部频繁子图交给结果接收者，子图的权重为支持度计数
+	 *
+	 * @param sink
+	 *            结果接收者，可用getNodeLabelDictionary和getEdgeLabelDictionary还原标号
+	 * @throws IOException
+	 */
+	public void writePatterns(ResultSink sink) throws IOException {
+		if (store == null) {
+			return;
+		}
+		writePatterns(sink, store.getRoot(), new ArrayList<Edge>());
+		sink.flush();
+	}
+
+	private void writePatterns(ResultSink sink, PatternStore.Node node, ArrayList<Edge> edgeSeq)
+			throws IOException {
+		for (PatternStore.Node child : node.children) {
+			if (!child.frequent) {
+				continue;
+			}
+			edgeSeq.add(child.edge);
+			GraphCode gc = new GraphCode();
+			gc.getEdgeSeq().addAll(edgeSeq);
+			gc.setGs(GraphIdSet.of(child.graphIds, child.graphIds.length, store.getGraphNum()));
+			sink.accept(gc, child.nodeNum, child.graphIds.length);
+			writePatterns(sink, child, edgeSeq);
+			edgeSeq.remove(edgeSeq.size() - 1);
+		}
+	}
+
+	/**
+	 * 更新图集的频繁子图，并把全部频繁子图写成文本
+	 *
+	 * 参数：图集文件地址 保存文件地址 最小支持度率 [结果文件地址]
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 3 && args.length != 4) {
+			System.err.println(
+					"Usage: IncrementalMiner <database.txt> <patterns.store> <minSupportRate> [output.txt]");
+			System.exit(1);
+		}
+
+		long startTime = System.currentTimeMillis();
+		IncrementalMiner miner = new IncrementalMiner(args[0], args[1],
+				Double.parseDouble(args[2]));
+		int added = miner.update();
+		System.out.println(MessageFormat.format("新追加的图{0}个，图的总数{1}个", added,
+				miner.getGraphNum()));
+		System.out.println(MessageFormat.format("新变得频繁的边界子图{0}个，读入旧图{1}个",
+				miner.getPromotedCount(), miner.getLoadedGraphCount()));
+		System.out.println("算法执行时间" + (System.currentTimeMillis() - startTime) + "ms");
+		System.out.println(MessageFormat.format("频繁子图的个数为：{0}个", miner.getFrequentCount()));
+		if (args.length == 4) {
+			try (TextResultSink sink = new TextResultSink(args[3],
+					miner.getNodeLabelDictionary(), miner.getEdgeLabelDictionary())) {
+				miner.writePatterns(sink);
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * 标号字典，把输入中的任意字符串标号（包括超出int范围的64位整数）编码为从0开始的连续整数
+ *
+ * 读入时按标号第一次出现的次序编码，预处理按频度重新标号时字典随之重排，
+ * 之后的编码即为挖掘中使用的标号，输出结果时用它还原为原始标号。
+ * 字典不是线程安全的，读入和重排都在单个线程中进行。
+ *
+ * @author cuilijuan
+ *
+ */
+public class LabelDictionary {
+	// 原始标号对编码的映射
+	private HashMap<String, Integer> codes = new HashMap<>();
+	// 编码对原始标号的映射
+	private ArrayList<String> labels = new ArrayList<>();
+
+	/**
+	 * 取得标号的编码，新标号分配下一个编码
+	 */
+	public int encode(String label) {
+		Integer code = codes.get(label);
+		if (code == null) {
+			code = labels.size();
+			codes.put(label, code);
+			labels.add(label);
+		}
+		return code;
+	}
+
+	/**
+	 * 查找标号的编码
+	 *
+	 * @return 编码，没有此标号时返回-1
+	 */
+	public int codeOf(String label) {
+		Integer code = codes.get(label);
+		return code == null ? -1 : code;
+	}
+
+	/**
+	 * 将编码还原为原始标号
+	 */
+	public String decode(int code) {
+		if (code < 0 || code >= labels.size()) {
+			throw new IllegalArgumentException("unknown label code: " + code);
+		}
+		return labels.get(code);
+	}
+
+	/**
+	 * 字典中的标号个数
+	 */
+	public int size() {
+		return labels.size();
+	}
+
+	/**
+	 * 按排名重排编码，排名第i位的标号的新编码为i
+	 *
+	 * @param rank
+	 *            [i]为排名第i位的旧编码，可以比字典长，多出的排名必须排在最后
+	 */
+	void reorder(int[] rank) {
+		ArrayList<String> reordered = new ArrayList<>(labels.size());
+		HashMap<String, Integer> reorderedCodes = new HashMap<>(codes.size() * 2);
+		for (int i = 0; i < labels.size(); i++) {
+			String label = labels.get(rank[i]);
+			reordered.add(label);
+			reorderedCodes.put(label, i);
+		}
+		labels = reordered;
+		codes = reorderedCodes;
+	}
+}
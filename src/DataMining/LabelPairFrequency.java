@@ -0,0 +1,104 @@
+package DataMining;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 点标号对的频度，即两端为这两种标号的边在多少个图中出现，按边的种类累加
+ *
+ * 只保存出现过的标号对：每个标号一行，行内按另一端的标号升序排列，占用的空间与出现过的
+ * 标号对个数成正比，不随标号数的平方增长。没有出现过的标号对频度为0。
+ *
+ * @author cuilijuan
+ *
+ */
+public class LabelPairFrequency {
+	// [i]为与标号i组成过标号对的另一端标号，升序
+	private int[][] labels;
+	// [i][p]为标号对(i, labels[i][p])的频度
+	private int[][] counts;
+
+	/**
+	 * 由边的倒排索引统计，只计入两端标号都小于nodeLabelNum、边标号小于edgeLabelNum的边，
+	 * 每种边的图个数同时计入(x, y)和(y, x)
+	 *
+	 * @param index
+	 *            边标号三元组的倒排索引
+	 * @param nodeLabelNum
+	 *            频繁的点标号数
+	 * @param edgeLabelNum
+	 *            频繁的边标号数
+	 */
+	public LabelPairFrequency(EdgeIndex index, int nodeLabelNum, int edgeLabelNum) {
+		HashMap<Long, int[]> pairs = new HashMap<>();
+		int[] rowSizes = new int[nodeLabelNum];
+		for (int n = 0; n < index.size(); n++) {
+			int x = index.x(n);
+			int a = index.a(n);
+			int y = index.y(n);
+			if (x >= nodeLabelNum || a >= edgeLabelNum || y >= nodeLabelNum) {
+				continue;
+			}
+			int count = index.graphIdsAt(n).cardinality();
+			add(pairs, rowSizes, x, y, count);
+			add(pairs, rowSizes, y, x, count);
+		}
+
+		labels = new int[nodeLabelNum][];
+		counts = new int[nodeLabelNum][];
+		for (int i = 0; i < nodeLabelNum; i++) {
+			labels[i] = new int[rowSizes[i]];
+			counts[i] = new int[rowSizes[i]];
+			rowSizes[i] = 0;
+		}
+		for (Map.Entry<Long, int[]> entry : pairs.entrySet()) {
+			int i = (int) (entry.getKey() >>> 32);
+			labels[i][rowSizes[i]++] = (int) (long) entry.getKey();
+		}
+		for (int i = 0; i < nodeLabelNum; i++) {
+			Arrays.sort(labels[i]);
+			for (int p = 0; p < labels[i].length; p++) {
+				counts[i][p] = pairs.get(toKey(i, labels[i][p]))[0];
+			}
+		}
+	}
+
+	private static void add(HashMap<Long, int[]> pairs, int[] rowSizes, int i, int j,
+			int count) {
+		long key = toKey(i, j);
+		int[] c = pairs.get(key);
+		if (c == null) {
+			c = new int[1];
+			pairs.put(key, c);
+			rowSizes[i]++;
+		}
+		c[0] += count;
+	}
+
+	private static long toKey(int i, int j) {
+		return ((long) i << 32) | j;
+	}
+
+	/**
+	 * 标号对(i, j)的频度
+	 */
+	public int count(int i, int j) {
+		int p = Arrays.binarySearch(labels[i], j);
+		return p < 0 ? 0 : counts[i][p];
+	}
+
+	/**
+	 * 与标号i组成过标号对的另一端标号，升序，不可修改
+	 */
+	public int[] labels(int i) {
+		return labels[i];
+	}
+
+	/**
+	 * 与labels(i)对应的频度，不可修改
+	 */
+	public int[] counts(int i) {
+		return counts[i];
+	}
+}
@@ -0,0 +1,214 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 点标号和边标号的频度统计，记录每种标号在多少个图中出现，并按频度给出标号的排名
+ *
+ * 标号可以是任意非负整数，频度数组按出现过的最大标号扩展，不再受固定的标号上限限制。
+ * 每个图中的每种标号只统计一次：为每种标号记下最后统计它的图的序号，一次遍历即可去重，
+ * 不必在图内查找。图较多时按图分段并行统计，各段的频度最后相加。
+ *
+ * @author cuilijuan
+ *
+ */
+public class LabelStatistics {
+	// 并行统计时每段的最少图数
+	private static final int CHUNK_MIN_GRAPHS = 4096;
+
+	// 点标号的频度，与边标号的频度数组等长
+	private final int[] freqNodeLabel;
+	// 边标号的频度
+	private final int[] freqEdgeLabel;
+
+	private LabelStatistics(int[] freqNodeLabel, int[] freqEdgeLabel) {
+		this.freqNodeLabel = freqNodeLabel;
+		this.freqEdgeLabel = freqEdgeLabel;
+	}
+
+	/**
+	 * 统计图集中点标号和边标号的频度
+	 *
+	 * @param graphs
+	 *            原始图数据
+	 * @param parallelism
+	 *            并行度，1为串行统计
+	 * @return
+	 */
+	public static LabelStatistics count(List<GraphData> graphs, int parallelism) {
+		Counter counter;
+		if (parallelism > 1 && graphs.size() >= 2 * CHUNK_MIN_GRAPHS) {
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				counter = pool.invoke(new CountTask(graphs, 0, graphs.size()));
+			} finally {
+				pool.shutdown();
+			}
+		} else {
+			counter = new Counter();
+			counter.addAll(graphs, 0, graphs.size());
+		}
+
+		// 点边两个频度数组等长，便于与排名一起保存，至少保留一个标号
+		int length = Math.max(1, Math.max(counter.nodeLabelNum, counter.edgeLabelNum));
+		return new LabelStatistics(Arrays.copyOf(counter.freqNodeLabel, length),
+				Arrays.copyOf(counter.freqEdgeLabel, length));
+	}
+
+	public int[] getFreqNodeLabel() {
+		return freqNodeLabel;
+	}
+
+	public int[] getFreqEdgeLabel() {
+		return freqEdgeLabel;
+	}
+
+	/**
+	 * 按频度从高到低给出标号的排名，频度相同时标号小的在前
+	 *
+	 * @param freq
+	 *            标号的频度
+	 * @return [i]为排名第i位的标号
+	 */
+	public static int[] rank(int[] freq) {
+		// 高32位为频度取反，低32位为标号，升序排列即为所求的次序
+		long[] keys = new long[freq.length];
+		for (int i = 0; i < freq.length; i++) {
+			keys[i] = ((long) (Integer.MAX_VALUE - freq[i]) << 32) | i;
+		}
+		Arrays.sort(keys);
+
+		int[] rank = new int[freq.length];
+		for (int i = 0; i < keys.length; i++) {
+			rank[i] = (int) keys[i];
+		}
+		return rank;
+	}
+
+	/**
+	 * 将排名对标号转为标号对排名
+	 */
+	public static int[] label2Rank(int[] rank) {
+		int[] label2Rank = new int[rank.length];
+		for (int i = 0; i < rank.length; i++) {
+			label2Rank[rank[i]] = i;
+		}
+		return label2Rank;
+	}
+
+	/**
+	 * 一段图的频度统计
+	 */
+	private static class Counter {
+		int[] freqNodeLabel = new int[16];
+		int[] freqEdgeLabel = new int[16];
+		// 每种标号最后被统计时所在图的序号加1，0为还没有统计过
+		int[] nodeStamp = new int[16];
+		int[] edgeStamp = new int[16];
+		// 出现过的最大标号加1
+		int nodeLabelNum = 0;
+		int edgeLabelNum = 0;
+
+		void addAll(List<GraphData> graphs, int from, int to) {
+			for (int i = from; i < to; i++) {
+				add(graphs.get(i), i + 1);
+			}
+		}
+
+		private void add(GraphData gd, int stamp) {
+			ArrayList<Integer> nodeLabels = gd.getNodeLabels();
+			for (int i = 0; i < nodeLabels.size(); i++) {
+				int label = checkLabel(nodeLabels.get(i));
+				if (label >= nodeStamp.length) {
+					int size = Math.max(label + 1, nodeStamp.length * 2);
+					nodeStamp = Arrays.copyOf(nodeStamp, size);
+					freqNodeLabel = Arrays.copyOf(freqNodeLabel, size);
+				}
+				// 只在标号在此图中第一次出现时统计
+				if (nodeStamp[label] != stamp) {
+					nodeStamp[label] = stamp;
+					freqNodeLabel[label]++;
+				}
+				nodeLabelNum = Math.max(nodeLabelNum, label + 1);
+			}
+
+			ArrayList<Integer> edgeLabels = gd.getEdgeLabels();
+			for (int i = 0; i < edgeLabels.size(); i++) {
+				int label = checkLabel(edgeLabels.get(i));
+				if (label >= edgeStamp.length) {
+					int size = Math.max(label + 1, edgeStamp.length * 2);
+					edgeStamp = Arrays.copyOf(edgeStamp, size);
+					freqEdgeLabel = Arrays.copyOf(freqEdgeLabel, size);
+				}
+				if (edgeStamp[label] != stamp) {
+					edgeStamp[label] = stamp;
+					freqEdgeLabel[label]++;
+				}
+				edgeLabelNum = Math.max(edgeLabelNum, label + 1);
+			}
+		}
+
+		private static int checkLabel(int label) {
+			if (label < 0) {
+				throw new IllegalArgumentException("labels must not be negative: " + label);
+			}
+			return label;
+		}
+
+		/**
+		 * 把另一段的频度加到此段上
+		 */
+		void merge(Counter other) {
+			freqNodeLabel = sum(freqNodeLabel, other.freqNodeLabel, other.nodeLabelNum);
+			freqEdgeLabel = sum(freqEdgeLabel, other.freqEdgeLabel, other.edgeLabelNum);
+			nodeLabelNum = Math.max(nodeLabelNum, other.nodeLabelNum);
+			edgeLabelNum = Math.max(edgeLabelNum, other.edgeLabelNum);
+		}
+
+		private static int[] sum(int[] freq, int[] other, int length) {
+			if (freq.length < length) {
+				freq = Arrays.copyOf(freq, length);
+			}
+			for (int i = 0; i < length; i++) {
+				freq[i] += other[i];
+			}
+			return freq;
+		}
+	}
+
+	/**
+	 * 并行统计任务，图数较多时对半拆分
+	 */
+	private static class CountTask extends RecursiveTask<Counter> {
+		private static final long serialVersionUID = 1L;
+
+		private final List<GraphData> graphs;
+		private final int from;
+		private final int to;
+
+		CountTask(List<GraphData> graphs, int from, int to) {
+			this.graphs = graphs;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Counter compute() {
+			if (to - from < 2 * CHUNK_MIN_GRAPHS) {
+				Counter counter = new Counter();
+				counter.addAll(graphs, from, to);
+				return counter;
+			}
+			int mid = (from + to) >>> 1;
+			CountTask right = new CountTask(graphs, mid, to);
+			right.fork();
+			Counter counter = new CountTask(graphs, from, mid).compute();
+			counter.merge(right.join());
+			return counter;
+		}
+	}
+}
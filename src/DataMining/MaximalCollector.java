@@ -0,0 +1,227 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * 极大频繁子图挖掘的候选收集类
+ *
+ * 挖掘过程中没有频繁孩子编码的子图都作为候选，它们沿最右路径已无法再拓展，但加在其他位置的边
+ * 仍可能使其频繁，所以挖掘结束后再做一次包含检查：被另一个候选包含的候选不是极大的。
+ * 每个非极大的频繁子图都被某个极大频繁子图包含，而极大频繁子图一定是候选，因此检查后剩下的
+ * 恰好是全部极大频繁子图。
+ *
+ * @author cuilijuan
+ *
+ */
+public class MaximalCollector {
+	// 候选子图
+	private final ArrayList<Pattern> candidates = new ArrayList<>();
+
+	/**
+	 * 一个候选子图
+	 */
+	public static class Pattern {
+		// 子图的图编码
+		final GraphCode gc;
+		// 子图的点数
+		final int nodeNum;
+		// 子图
+		final Graph graph;
+		// 子图的权重
+		final double weight;
+
+		Pattern(GraphCode gc, int nodeNum, Graph graph, double weight) {
+			this.gc = gc;
+			this.nodeNum = nodeNum;
+			this.graph = graph;
+			this.weight = weight;
+		}
+
+		public GraphCode getGc() {
+			return gc;
+		}
+
+		public int getNodeNum() {
+			return nodeNum;
+		}
+
+		public Graph getGraph() {
+			return graph;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+	}
+
+	// 边数多的在前，边数相同时按DFS字典序，保证并行挖掘的结果次序确定
+	private static final Comparator<Pattern> LARGEST_FIRST = new Comparator<Pattern>() {
+		@Override
+		public int compare(Pattern p1, Pattern p2) {
+			int c = Integer.compare(p2.gc.getEdgeSeq().size(), p1.gc.getEdgeSeq().size());
+			if (c != 0) {
+				return c;
+			}
+			return TopKCollector.compareCode(p1.gc.getEdgeSeq(), p2.gc.getEdgeSeq());
+		}
+	};
+
+	/**
+	 * 加入一个没有频繁孩子编码的子图
+	 */
+	public synchronized void add(GraphCode gc, int nodeNum, Graph graph, double weight) {
+		// 嵌入在包含检查中用不到，不再保留
+		GraphCode kept = new GraphCode();
+		kept.setEdgeSeq(gc.getEdgeSeq());
+		kept.setGs(gc.getGs());
+		candidates.add(new Pattern(kept, nodeNum, graph, weight));
+	}
+
+	/**
+	 * 已加入的候选个数
+	 */
+	public synchronized int size() {
+		return candidates.size();
+	}
+
+	/**
+	 * 去掉被其他候选包含的候选，得到极大频繁子图
+	 *
+	 * @return 边数多的在前的极大频繁子图
+	 */
+	public synchronized ArrayList<Pattern> getMaximalPatterns() {
+		ArrayList<Pattern> sorted = new ArrayList<>(candidates);
+		Collections.sort(sorted, LARGEST_FIRST);
+
+		// 只有边数更多的候选才可能包含当前候选，它们已经确定是否极大
+		ArrayList<Pattern> maximal = new ArrayList<>();
+		ArrayList<CsrGraph> maximalGraphs = new ArrayList<>();
+		for (Pattern pattern : sorted) {
+			boolean subsumed = false;
+			for (int i = 0; i < maximal.size() && !subsumed; i++) {
+				subsumed = contains(maximal.get(i), maximalGraphs.get(i), pattern);
+			}
+			if (!subsumed) {
+				maximal.add(pattern);
+				maximalGraphs.add(toCsrGraph(pattern));
+			}
+		}
+		return maximal;
+	}
+
+	/**
+	 * 判断子图sub是否被子图sup包含
+	 */
+	private static boolean contains(Pattern sup, CsrGraph supGraph, Pattern sub) {
+		if (sup.gc.getEdgeSeq().size() <= sub.gc.getEdgeSeq().size()
+				|| sup.nodeNum < sub.nodeNum) {
+			return false;
+		}
+		// 超图的支持图一定是子图支持图的子集
+		GraphIdSet supIds = sup.gc.getGs();
+		GraphIdSet common = supIds.and(sub.gc.getGs(), supIds.cardinality());
+		if (common == null) {
+			return false;
+		}
+		return new SubgraphMatcher(sub.gc.getEdgeSeq(), supGraph).match();
+	}
+
+	/**
+	 * 由编码构造图结构，用于包含检查
+	 */
+	private static CsrGraph toCsrGraph(Pattern pattern) {
+		ArrayList<Edge> edgeSeq = pattern.gc.getEdgeSeq();
+		int[] nodeLabels = new int[pattern.nodeNum];
+		int[] edgeX = new int[edgeSeq.size()];
+		int[] edgeY = new int[edgeSeq.size()];
+		int[] labels = new int[edgeSeq.size()];
+		for (int i = 0; i < edgeSeq.size(); i++) {
+			Edge e = edgeSeq.get(i);
+			nodeLabels[e.ix] = e.x;
+			nodeLabels[e.iy] = e.y;
+			edgeX[i] = e.ix;
+			edgeY[i] = e.iy;
+			labels[i] = e.a;
+		}
+		return CsrGraph.build(nodeLabels, edgeX, edgeY, labels, edgeSeq.size());
+	}
+
+	/**
+	 * 判断编码是否能嵌入到图中，找到一个嵌入即停止
+	 */
+	private static class SubgraphMatcher {
+		// 当前的五元组边
+		private final ArrayList<Edge> edgeSeq;
+		// 当前的图
+		private final CsrGraph graph;
+		// 图的点id对五元组id标识的映射
+		private final int[] g2s;
+		// 五元组id标识对图的点id的映射
+		private final int[] s2g;
+
+		SubgraphMatcher(ArrayList<Edge> edgeSeq, CsrGraph graph) {
+			this.edgeSeq = edgeSeq;
+			this.graph = graph;
+			this.g2s = new int[graph.nodeNum()];
+			int next = 0;
+			for (Edge e : edgeSeq) {
+				next = Math.max(next, Math.max(e.ix, e.iy) + 1);
+			}
+			this.s2g = new int[next];
+			for (int i = 0; i < g2s.length; i++) {
+				g2s[i] = -1;
+			}
+		}
+
+		boolean match() {
+			for (int i = 0; i < graph.nodeNum(); i++) {
+				if (graph.nodeLabels[i] != edgeSeq.get(0).x) {
+					continue;
+				}
+				g2s[i] = 0;
+				s2g[0] = i;
+				boolean found = dfsSearchEdge(0);
+				g2s[i] = -1;
+				if (found) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean dfsSearchEdge(int currentPosition) {
+			if (currentPosition >= edgeSeq.size()) {
+				return true;
+			}
+
+			Edge e = edgeSeq.get(currentPosition);
+			int gId1 = s2g[e.ix];
+			for (int i = graph.offsets[gId1]; i < graph.offsets[gId1 + 1]; i++) {
+				int gId2 = graph.neighbors[i];
+				if (graph.edgeLabels[i] != e.a || graph.nodeLabels[gId2] != e.y) {
+					continue;
+				}
+
+				if (e.ix < e.iy) {
+					// 前向边连向的点必须是没有设置过的
+					if (g2s[gId2] != -1) {
+						continue;
+					}
+					g2s[gId2] = e.iy;
+					s2g[e.iy] = gId2;
+					boolean found = dfsSearchEdge(currentPosition + 1);
+					g2s[gId2] = -1;
+					if (found) {
+						return true;
+					}
+				} else if (s2g[e.iy] == gId2 && dfsSearchEdge(currentPosition + 1)) {
+					// 后向边连向的点必须已经对应
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package DataMining;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 挖掘的预算，包括运行时间、结果子图个数和堆内存占用的上限
+ *
+ * 挖掘过程在处理每个编码之前检查预算，超出后不再拓展新的编码，已找到的结果照常输出，
+ * 没有挖掘完的种子边记录在MiningReport中。预算对象可以在多次挖掘中重复使用，每次挖掘开始时重新计时计数。
+ *
+ * @author cuilijuan
+ *
+ */
+public class MiningBudget {
+	/**
+	 * 挖掘提前结束的原因
+	 */
+	public enum StopReason {
+		// 超出运行时间
+		DEADLINE,
+		// 结果子图个数达到上限
+		MAX_PATTERNS,
+		// 堆内存占用超出上限
+		HEAP
+	}
+
+	// 运行时间上限，单位毫秒，0为不限制
+	private long timeLimitMillis = 0;
+	// 结果子图个数上限，0为不限制
+	private long maxPatterns = 0;
+	// 已用堆内存占最大堆内存的比例上限，0为不限制
+	private double maxHeapRatio = 0;
+
+	// 本次挖掘的截止时间，System.nanoTime的值
+	private long deadlineNanos;
+	// 本次挖掘已接受的结果子图个数
+	private final AtomicLong patternCount = new AtomicLong();
+	// 本次挖掘提前结束的原因，没有超出预算时为null
+	private volatile StopReason stopReason;
+
+	public long getTimeLimitMillis() {
+		return timeLimitMillis;
+	}
+
+	/**
+	 * 设置运行时间上限，从挖掘开始时计时
+	 * 
+	 * @param timeLimitMillis
+	 *            时间上限，单位毫秒，0为不限制
+	 */
+	public void setTimeLimitMillis(long timeLimitMillis) {
+		if (timeLimitMillis < 0) {
+			throw new IllegalArgumentException("time limit must not be negative: " + timeLimitMillis);
+		}
+		this.timeLimitMillis = timeLimitMillis;
+	}
+
+	public long getMaxPatterns() {
+		return maxPatterns;
+	}
+
+	/**
+	 * 设置结果子图个数上限，达到上限后不再接受新的子图
+	 * 
+	 * @param maxPatterns
+	 *            子图个数上限，0为不限制
+	 */
+	public void setMaxPatterns(long maxPatterns) {
+		if (maxPatterns < 0) {
+			throw new IllegalArgumentException("max patterns must not be negative: " + maxPatterns);
+		}
+		this.maxPatterns = maxPatterns;
+	}
+
+	public double getMaxHeapRatio() {
+		return maxHeapRatio;
+	}
+
+	/**
+	 * 设置已用堆内存占最大堆内存的比例上限。已用内存包括还没有回收的垃圾，比例宜留有余量
+	 * 
+	 * @param maxHeapRatio
+	 *            比例上限，取值(0, 1]，0为不限制
+	 */
+	public void setMaxHeapRatio(double maxHeapRatio) {
+		if (!(maxHeapRatio >= 0 && maxHeapRatio <= 1)) {
+			throw new IllegalArgumentException("heap ratio must be in [0, 1]: " + maxHeapRatio);
+		}
+		this.maxHeapRatio = maxHeapRatio;
+	}
+
+	/**
+	 * 开始一次挖掘，重新计时和计数
+	 */
+	void start() {
+		deadlineNanos = System.nanoTime() + timeLimitMillis * 1000000L;
+		patternCount.set(0);
+		stopReason = null;
+	}
+
+	/**
+	 * 检查时间和内存预算，超出时记录原因
+	 * 
+	 * @return 是否已经超出预算
+	 */
+	boolean isExhausted() {
+		if (stopReason != null) {
+			return true;
+		}
+		if (timeLimitMillis > 0 && System.nanoTime() - deadlineNanos >= 0) {
+			stop(StopReason.DEADLINE);
+		} else if (maxHeapRatio > 0) {
+			Runtime runtime = Runtime.getRuntime();
+			long used = runtime.totalMemory() - runtime.freeMemory();
+			if (used > runtime.maxMemory() * maxHeapRatio) {
+				stop(StopReason.HEAP);
+			}
+		}
+		return stopReason != null;
+	}
+
+	/**
+	 * 申请接受一个结果子图
+	 * 
+	 * @return 是否还在个数上限之内，否则不应接受此子图
+	 */
+	boolean tryAcquirePattern() {
+		if (stopReason != null) {
+			return false;
+		}
+		if (maxPatterns > 0 && patternCount.incrementAndGet() > maxPatterns) {
+			stop(StopReason.MAX_PATTERNS);
+			return false;
+		}
+		return true;
+	}
+
+	private synchronized void stop(StopReason reason) {
+		// 只记录第一次超出的原因
+		if (stopReason == null) {
+			stopReason = reason;
+		}
+	}
+
+	/**
+	 * 本次挖掘是否已经提前结束，不再重新检查预算
+	 */
+	boolean isStopped() {
+		return stopReason != null;
+	}
+
+	/**
+	 * 本次挖掘提前结束的原因，没有超出预算时为null
+	 */
+	public StopReason getStopReason() {
+		return stopReason;
+	}
+}
@@ -0,0 +1,341 @@
+package DataMining;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 挖掘的检查点，以种子边为单位记录已挖掘完整的子树及其结果，挖掘中断后可从检查点继续
+ *
+ * 文件格式，全部为大端编码：
+ * 文件头为魔数、版本号、挖掘参数(double最小支持度率和若干int)、点标号排名、边标号排名；
+ * 之后每挖掘完一条种子边追加一条记录：种子边的(x, a, y)、结果子图个数、每个子图的
+ * 边数、五元组、点数、权重(double)、支持图个数、图id，最后以提交标记结束。
+ * 进程在写记录时被杀掉，末尾不完整的记录会在下次打开时截掉。
+ *
+ * @author cuilijuan
+ *
+ */
+public class MiningCheckpoint {
+	// 检查点文件的魔数 "GSCP"
+	public static final int MAGIC = 0x47534350;
+	// 检查点格式的版本号
+	public static final int VERSION = 1;
+	// 每条种子边记录结尾的提交标记
+	private static final int COMMIT = ~MAGIC;
+
+	// 检查点文件地址
+	private final String path;
+	// 图的总数
+	private final int graphNum;
+	// 已挖掘完整的种子边的结果子图，以种子边为键
+	private final HashMap<Long, ArrayList<Pattern>> completed = new HashMap<>();
+	// 正在挖掘的种子边已接受的结果子图
+	private final ConcurrentHashMap<Long, ArrayList<Pattern>> pending = new ConcurrentHashMap<>();
+	// 追加记录的输出
+	private FileOutputStream file;
+	private DataOutputStream out;
+
+	/**
+	 * 检查点中的一个结果子图
+	 */
+	public static class Pattern {
+		// 子图的图编码，不含嵌入
+		final GraphCode gc;
+		// 子图的点数
+		final int nodeNum;
+		// 子图的权重
+		final double weight;
+
+		Pattern(GraphCode gc, int nodeNum, double weight) {
+			this.gc = gc;
+			this.nodeNum = nodeNum;
+			this.weight = weight;
+		}
+
+		/**
+		 * 保存子图的编码和支持图，嵌入不需要保存
+		 */
+		static Pattern of(GraphCode gc, int nodeNum, double weight) {
+			GraphCode kept = new GraphCode();
+			kept.setEdgeSeq(gc.getEdgeSeq());
+			kept.setGs(gc.getGs());
+			return new Pattern(kept, nodeNum, weight);
+		}
+
+		public GraphCode getGc() {
+			return gc;
+		}
+
+		public int getNodeNum() {
+			return nodeNum;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+	}
+
+	// 挖掘树的先序次序，前缀在前，同一父编码的孩子按DFS字典序
+	private static final Comparator<Pattern> PREORDER = new Comparator<Pattern>() {
+		@Override
+		public int compare(Pattern p1, Pattern p2) {
+			return TopKCollector.compareCode(p1.gc.getEdgeSeq(), p2.gc.getEdgeSeq());
+		}
+	};
+
+	private MiningCheckpoint(String path, int graphNum) {
+		this.path = path;
+		this.graphNum = graphNum;
+	}
+
+	/**
+	 * 打开检查点，文件不存在时新建，存在时载入已完成的种子边。文件中的挖掘参数和标号排名
+	 * 与本次挖掘不同时抛出异常，避免混入其他任务的结果
+	 *
+	 * @param path
+	 *            检查点文件地址
+	 * @param minSupportRate
+	 *            最小支持度率
+	 * @param settings
+	 *            其他影响结果的挖掘参数，第一个为图的总数
+	 * @param rankNodeLabels
+	 *            点标号的排序名次
+	 * @param rankEdgeLabels
+	 *            边标号的排序名次
+	 * @return
+	 * @throws IOException
+	 */
+	public static MiningCheckpoint open(String path, double minSupportRate, int[] settings,
+			int[] rankNodeLabels, int[] rankEdgeLabels) throws IOException {
+		MiningCheckpoint checkpoint = new MiningCheckpoint(path, settings[0]);
+		File f = new File(path);
+		long validLength = 0;
+		if (f.exists() && f.length() > 0) {
+			validLength = checkpoint.load(minSupportRate, settings, rankNodeLabels, rankEdgeLabels);
+			// 截掉末尾不完整的记录
+			try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+				raf.setLength(validLength);
+			}
+		}
+
+		checkpoint.file = new FileOutputStream(f, true);
+		checkpoint.out = new DataOutputStream(new BufferedOutputStream(checkpoint.file, 1 << 16));
+		if (validLength == 0) {
+			DataOutputStream out = checkpoint.out;
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeDouble(minSupportRate);
+			writeInts(out, settings);
+			writeInts(out, rankNodeLabels);
+			writeInts(out, rankEdgeLabels);
+			checkpoint.sync();
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * 载入已有的检查点
+	 *
+	 * @return 完整记录的总字节数
+	 */
+	private long load(double minSupportRate, int[] settings, int[] rankNodeLabels,
+			int[] rankEdgeLabels) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(path), 1 << 16))) {
+			double rate;
+			int[] fileSettings;
+			int[] fileRankNodeLabels;
+			int[] fileRankEdgeLabels;
+			try {
+				if (in.readInt() != MAGIC) {
+					throw new IOException(path + " is not a mining checkpoint");
+				}
+				int version = in.readInt();
+				if (version != VERSION) {
+					throw new IOException("unsupported checkpoint version " + version + " in "
+							+ path);
+				}
+				rate = in.readDouble();
+				fileSettings = readInts(in);
+				fileRankNodeLabels = readInts(in);
+				fileRankEdgeLabels = readInts(in);
+			} catch (EOFException e) {
+				// 文件头没有写完，重新写入
+				return 0;
+			}
+			if (Double.compare(rate, minSupportRate) != 0 || !Arrays.equals(fileSettings, settings)
+					|| !Arrays.equals(fileRankNodeLabels, rankNodeLabels)
+					|| !Arrays.equals(fileRankEdgeLabels, rankEdgeLabels)) {
+				throw new IllegalStateException("checkpoint " + path
+						+ " was written by a run with different data or settings");
+			}
+			long length = 8 + 8 + 4L * (3 + settings.length + rankNodeLabels.length
+					+ rankEdgeLabels.length);
+
+			while (true) {
+				long recordLength = 0;
+				ArrayList<Pattern> patterns = new ArrayList<>();
+				long key;
+				try {
+					key = seedKey(in.readInt(), in.readInt(), in.readInt());
+					int patternNum = in.readInt();
+					recordLength += 16;
+					for (int i = 0; i < patternNum; i++) {
+						GraphCode gc = new GraphCode();
+						int edgeNum = in.readInt();
+						for (int j = 0; j < edgeNum; j++) {
+							gc.getEdgeSeq().add(new Edge(in.readInt(), in.readInt(),
+									in.readInt(), in.readInt(), in.readInt()));
+						}
+						int nodeNum = in.readInt();
+						double weight = in.readDouble();
+						int[] ids = readInts(in);
+						gc.setGs(GraphIdSet.of(ids, ids.length, graphNum));
+						patterns.add(new Pattern(gc, nodeNum, weight));
+						recordLength += 4 + 20L * edgeNum + 4 + 8 + 4 + 4L * ids.length;
+					}
+					if (in.readInt() != COMMIT) {
+						break;
+					}
+					recordLength += 4;
+				} catch (EOFException e) {
+					// 记录没有写完
+					break;
+				}
+				completed.put(key, patterns);
+				length += recordLength;
+			}
+			return length;
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		out.writeInt(values.length);
+		for (int v : values) {
+			out.writeInt(v);
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int[] values = new int[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+
+	private static long seedKey(int x, int a, int y) {
+		return ((long) x << 42) | ((long) a << 21) | y;
+	}
+
+	private static long seedKey(Edge seed) {
+		return seedKey(seed.x, seed.a, seed.y);
+	}
+
+	/**
+	 * 种子边是否已在之前的运行中挖掘完整
+	 */
+	public synchronized boolean isCompleted(Edge seed) {
+		return completed.containsKey(seedKey(seed));
+	}
+
+	/**
+	 * 已挖掘完整的种子边的结果子图，按挖掘树的先序次序排列，最后一个即为此种子边的结果
+	 */
+	public synchronized ArrayList<Pattern> getPatterns(Edge seed) {
+		return completed.get(seedKey(seed));
+	}
+
+	/**
+	 * 已挖掘完整的种子边个数
+	 */
+	public synchronized int getCompletedCount() {
+		return completed.size();
+	}
+
+	/**
+	 * 记录一个被接受的结果子图，子图属于其编码第一条边所在的种子边
+	 */
+	public void recordPattern(GraphCode gc, int nodeNum, double weight) {
+		ArrayList<Pattern> patterns = pending.get(seedKey(gc.getEdgeSeq().get(0)));
+		if (patterns == null) {
+			return;
+		}
+		Pattern pattern = Pattern.of(gc, nodeNum, weight);
+		synchronized (patterns) {
+			patterns.add(pattern);
+		}
+	}
+
+	/**
+	 * 开始挖掘一条种子边
+	 */
+	public void startSeed(Edge seed) {
+		pending.put(seedKey(seed), new ArrayList<Pattern>());
+	}
+
+	/**
+	 * 种子边挖掘完整，追加记录并写到磁盘
+	 */
+	public synchronized void completeSeed(Edge seed) throws IOException {
+		long key = seedKey(seed);
+		ArrayList<Pattern> patterns = pending.remove(key);
+		if (patterns == null) {
+			return;
+		}
+		// 并行挖掘时子图的接受次序不确定，按DFS字典序排列即为串行挖掘时的先序次序
+		Collections.sort(patterns, PREORDER);
+
+		out.writeInt(seed.x);
+		out.writeInt(seed.a);
+		out.writeInt(seed.y);
+		out.writeInt(patterns.size());
+		for (Pattern pattern : patterns) {
+			ArrayList<Edge> edgeSeq = pattern.gc.getEdgeSeq();
+			out.writeInt(edgeSeq.size());
+			for (Edge e : edgeSeq) {
+				out.writeInt(e.ix);
+				out.writeInt(e.iy);
+				out.writeInt(e.x);
+				out.writeInt(e.a);
+				out.writeInt(e.y);
+			}
+			out.writeInt(pattern.nodeNum);
+			out.writeDouble(pattern.weight);
+			writeInts(out, pattern.gc.getGs().toArray());
+		}
+		out.writeInt(COMMIT);
+		sync();
+		completed.put(key, patterns);
+	}
+
+	/**
+	 * 种子边没有挖掘完整，丢弃其结果，下次运行时重新挖掘
+	 */
+	public void discardSeed(Edge seed) {
+		pending.remove(seedKey(seed));
+	}
+
+	private void sync() throws IOException {
+		out.flush();
+		file.getFD().sync();
+	}
+
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+}
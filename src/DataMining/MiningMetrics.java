@@ -0,0 +1,379 @@
+package DataMining;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 挖掘过程的统计，包括挖掘热点上的计数和计时，以及按深度的拓展情况和每条种子边的用时
+ *
+ * 计数都用LongAdder，多个挖掘线程同时累加时各自写入不同的单元，不会争抢同一个变量。
+ * 挖掘结束后toJson()给出完整的统计，设置了进度间隔时挖掘过程中定时输出一行进度快照，
+ * 快照和统计都是单行JSON，便于用脚本分析。统计对象可以在多次挖掘中重复使用，每次挖掘开始时清零。
+ *
+ * @author cuilijuan
+ *
+ */
+public class MiningMetrics {
+	// 按深度统计的层数，深度为编码的边数，更深的编码都计入最后一层
+	public static final int DEPTH_MAX = 64;
+
+	// 处理过的编码个数
+	private final LongAdder codesVisited = new LongAdder();
+	// 执行的最小编码判断次数
+	private final LongAdder minChecks = new LongAdder();
+	// 判断为非最小编码的次数
+	private final LongAdder minRejected = new LongAdder();
+	// 最小编码判断的用时，单位纳秒
+	private final LongAdder minCheckNanos = new LongAdder();
+	// 在支持图中重新搜索编码的次数，即SubChildTraveler的调用次数
+	private final LongAdder childTravels = new LongAdder();
+	// 在已有嵌入上拓展的图的个数，即EmbeddingExtender的调用次数
+	private final LongAdder embeddingExtensions = new LongAdder();
+	// 找到的孩子边出现次数，使用嵌入拓展时即为孩子编码的嵌入个数
+	private final LongAdder embeddingsFound = new LongAdder();
+	// 因支持度剪枝而跳过的支持图个数
+	private final LongAdder graphsPruned = new LongAdder();
+	// 生成的不同孩子边个数
+	private final LongAdder childEdgesGenerated = new LongAdder();
+	// 不满足最小支持度而被去掉的孩子边个数
+	private final LongAdder childEdgesPruned = new LongAdder();
+	// 生成孩子编码的用时，单位纳秒
+	private final LongAdder childCodeNanos = new LongAdder();
+	// 闭合判断的用时，单位纳秒
+	private final LongAdder closureNanos = new LongAdder();
+	// 接受的结果子图个数
+	private final LongAdder patternsAccepted = new LongAdder();
+	// 每层处理过的编码个数
+	private final LongAdder[] depthVisits = newAdders(DEPTH_MAX);
+	// 每层编码的孩子编码总数，与depthVisits相除即为这一层的平均扇出
+	private final LongAdder[] depthChildren = newAdders(DEPTH_MAX);
+
+	// 每条种子边的挖掘用时，单位纳秒，-1为本次没有挖掘
+	private volatile AtomicLongArray seedNanos = new AtomicLongArray(0);
+	// 已挖掘完的种子边个数
+	private final LongAdder seedsDone = new LongAdder();
+	// 本次挖掘的开始时间，System.nanoTime的值
+	private volatile long startNanos;
+	// 本次挖掘的用时，挖掘结束前为-1
+	private volatile long elapsedNanos = -1;
+
+	// 进度快照的输出间隔，单位毫秒，0为不输出
+	private long progressIntervalMillis = 0;
+	// 进度快照的输出
+	private PrintStream progressOut = System.err;
+	// 定时输出进度快照的线程
+	private ScheduledExecutorService progressTimer;
+
+	private static LongAdder[] newAdders(int n) {
+		LongAdder[] adders = new LongAdder[n];
+		for (int i = 0; i < n; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	public long getProgressIntervalMillis() {
+		return progressIntervalMillis;
+	}
+
+	/**
+	 * 设置挖掘过程中输出进度快照的间隔
+	 *
+	 * @param progressIntervalMillis
+	 *            间隔，单位毫秒，0为不输出
+	 */
+	public void setProgressIntervalMillis(long progressIntervalMillis) {
+		if (progressIntervalMillis < 0) {
+			throw new IllegalArgumentException("progress interval must not be negative: "
+					+ progressIntervalMillis);
+		}
+		this.progressIntervalMillis = progressIntervalMillis;
+	}
+
+	public PrintStream getProgressOut() {
+		return progressOut;
+	}
+
+	/**
+	 * 设置进度快照的输出，默认为标准错误
+	 */
+	public void setProgressOut(PrintStream progressOut) {
+		if (progressOut == null) {
+			throw new IllegalArgumentException("progress output must not be null");
+		}
+		this.progressOut = progressOut;
+	}
+
+	/**
+	 * 挖掘开始时清零统计，需要时启动进度输出
+	 *
+	 * @param seedNum
+	 *            种子边的个数
+	 */
+	synchronized void start(int seedNum) {
+		LongAdder[] counters = { codesVisited, minChecks, minRejected, minCheckNanos,
+				childTravels, embeddingExtensions, embeddingsFound, graphsPruned,
+				childEdgesGenerated, childEdgesPruned, childCodeNanos, closureNanos,
+				patternsAccepted, seedsDone };
+		for (LongAdder counter : counters) {
+			counter.reset();
+		}
+		for (int i = 0; i < DEPTH_MAX; i++) {
+			depthVisits[i].reset();
+			depthChildren[i].reset();
+		}
+		AtomicLongArray seeds = new AtomicLongArray(seedNum);
+		for (int i = 0; i < seedNum; i++) {
+			seeds.set(i, -1);
+		}
+		seedNanos = seeds;
+		elapsedNanos = -1;
+		startNanos = System.nanoTime();
+
+		if (progressIntervalMillis > 0) {
+			progressTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "gspan-progress");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			progressTimer.scheduleAtFixedRate(new Runnable() {
+				@Override
+				public void run() {
+					progressOut.println(snapshot());
+				}
+			}, progressIntervalMillis, progressIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * 挖掘结束，停止进度输出
+	 */
+	synchronized void stop() {
+		elapsedNanos = System.nanoTime() - startNanos;
+		if (progressTimer != null) {
+			progressTimer.shutdownNow();
+			progressTimer = null;
+		}
+	}
+
+	private static int depthIndex(int depth) {
+		return Math.min(depth, DEPTH_MAX - 1);
+	}
+
+	/**
+	 * 处理了一个深度为depth的编码
+	 */
+	void codeVisited(int depth) {
+		codesVisited.increment();
+		depthVisits[depthIndex(depth)].increment();
+	}
+
+	/**
+	 * 深度为depth的编码得到了childNum个需要继续挖掘的孩子编码
+	 */
+	void childrenFound(int depth, int childNum) {
+		depthChildren[depthIndex(depth)].add(childNum);
+	}
+
+	/**
+	 * 执行了一次最小编码判断
+	 */
+	void minChecked(boolean isMin, long nanos) {
+		minChecks.increment();
+		minCheckNanos.add(nanos);
+		if (!isMin) {
+			minRejected.increment();
+		}
+	}
+
+	/**
+	 * 在一个支持图中找到了edgeNum次孩子边的出现
+	 *
+	 * @param byEmbedding
+	 *            是否在已有嵌入上拓展，否则为重新搜索
+	 */
+	void childEdgesFound(boolean byEmbedding, int edgeNum) {
+		if (byEmbedding) {
+			embeddingExtensions.increment();
+		} else {
+			childTravels.increment();
+		}
+		embeddingsFound.add(edgeNum);
+	}
+
+	/**
+	 * 支持度剪枝跳过了graphNum个支持图
+	 */
+	void graphsPruned(int graphNum) {
+		graphsPruned.add(graphNum);
+	}
+
+	/**
+	 * 生成孩子编码结束
+	 *
+	 * @param edgeNum
+	 *            生成的不同孩子边个数
+	 * @param frequentNum
+	 *            其中满足最小支持度的个数
+	 * @param nanos
+	 *            用时，单位纳秒
+	 */
+	void childCodesGenerated(int edgeNum, int frequentNum, long nanos) {
+		childEdgesGenerated.add(edgeNum);
+		childEdgesPruned.add(edgeNum - frequentNum);
+		childCodeNanos.add(nanos);
+	}
+
+	void closureChecked(long nanos) {
+		closureNanos.add(nanos);
+	}
+
+	void patternAccepted() {
+		patternsAccepted.increment();
+	}
+
+	/**
+	 * 第index条种子边挖掘完毕，并行挖掘时用时为从任务开始到子树全部结束的时间
+	 */
+	void seedFinished(int index, long nanos) {
+		AtomicLongArray seeds = seedNanos;
+		if (index >= 0 && index < seeds.length()) {
+			seeds.set(index, nanos);
+		}
+		seedsDone.increment();
+	}
+
+	public long getCodesVisited() {
+		return codesVisited.sum();
+	}
+
+	public long getMinChecks() {
+		return minChecks.sum();
+	}
+
+	public long getMinRejected() {
+		return minRejected.sum();
+	}
+
+	public long getChildTravels() {
+		return childTravels.sum();
+	}
+
+	public long getEmbeddingExtensions() {
+		return embeddingExtensions.sum();
+	}
+
+	public long getEmbeddingsFound() {
+		return embeddingsFound.sum();
+	}
+
+	public long getGraphsPruned() {
+		return graphsPruned.sum();
+	}
+
+	public long getChildEdgesGenerated() {
+		return childEdgesGenerated.sum();
+	}
+
+	public long getChildEdgesPruned() {
+		return childEdgesPruned.sum();
+	}
+
+	public long getPatternsAccepted() {
+		return patternsAccepted.sum();
+	}
+
+	/**
+	 * 第index条种子边的挖掘用时，单位毫秒，本次没有挖掘时为-1
+	 */
+	public double getSeedMillis(int index) {
+		long nanos = seedNanos.get(index);
+		return nanos < 0 ? -1 : nanos / 1e6;
+	}
+
+	private long elapsedNanos() {
+		long elapsed = elapsedNanos;
+		return elapsed >= 0 ? elapsed : System.nanoTime() - startNanos;
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+
+	/**
+	 * 挖掘过程中的进度快照，单行JSON
+	 */
+	public String snapshot() {
+		Runtime runtime = Runtime.getRuntime();
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"elapsedMillis\":").append(millis(elapsedNanos()));
+		sb.append(",\"seedsDone\":").append(seedsDone.sum());
+		sb.append(",\"seedsTotal\":").append(seedNanos.length());
+		sb.append(",\"codesVisited\":").append(codesVisited.sum());
+		sb.append(",\"minChecks\":").append(minChecks.sum());
+		sb.append(",\"minRejected\":").append(minRejected.sum());
+		sb.append(",\"patternsAccepted\":").append(patternsAccepted.sum());
+		sb.append(",\"heapUsedBytes\":").append(runtime.totalMemory() - runtime.freeMemory());
+		sb.append('}');
+		return sb.toString();
+	}
+
+	/**
+	 * 完整的统计，单行JSON。深度数组的第i项为边数为i的编码，去掉了末尾的0；
+	 * 种子边用时的次序与MiningReport中种子边的次序相同，-1为本次没有挖掘
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"elapsedMillis\":").append(millis(elapsedNanos()));
+		sb.append(",\"codesVisited\":").append(codesVisited.sum());
+		sb.append(",\"minChecks\":").append(minChecks.sum());
+		sb.append(",\"minRejected\":").append(minRejected.sum());
+		sb.append(",\"minCheckMillis\":").append(millis(minCheckNanos.sum()));
+		sb.append(",\"childTravels\":").append(childTravels.sum());
+		sb.append(",\"embeddingExtensions\":").append(embeddingExtensions.sum());
+		sb.append(",\"embeddingsFound\":").append(embeddingsFound.sum());
+		sb.append(",\"graphsPruned\":").append(graphsPruned.sum());
+		sb.append(",\"childEdgesGenerated\":").append(childEdgesGenerated.sum());
+		sb.append(",\"childEdgesPruned\":").append(childEdgesPruned.sum());
+		sb.append(",\"childCodeMillis\":").append(millis(childCodeNanos.sum()));
+		sb.append(",\"closureMillis\":").append(millis(closureNanos.sum()));
+		sb.append(",\"patternsAccepted\":").append(patternsAccepted.sum());
+
+		int depthNum = DEPTH_MAX;
+		while (depthNum > 0 && depthVisits[depthNum - 1].sum() == 0) {
+			depthNum--;
+		}
+		sb.append(",\"depthVisits\":[");
+		for (int i = 0; i < depthNum; i++) {
+			sb.append(i > 0 ? "," : "").append(depthVisits[i].sum());
+		}
+		sb.append("],\"depthChildren\":[");
+		for (int i = 0; i < depthNum; i++) {
+			sb.append(i > 0 ? "," : "").append(depthChildren[i].sum());
+		}
+
+		AtomicLongArray seeds = seedNanos;
+		sb.append("],\"seedsDone\":").append(seedsDone.sum());
+		sb.append(",\"seedMillis\":[");
+		for (int i = 0; i < seeds.length(); i++) {
+			long nanos = seeds.get(i);
+			sb.append(i > 0 ? "," : "").append(nanos < 0 ? "-1" : millis(nanos));
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return toJson();
+	}
+}
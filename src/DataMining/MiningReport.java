@@ -0,0 +1,86 @@
+package DataMining;
+
+import java.util.ArrayList;
+
+/**
+ * 一次挖掘的报告，记录是否因超出预算提前结束，以及每条种子边的子树是否挖掘完整
+ *
+ * @author cuilijuan
+ *
+ */
+public class MiningReport {
+	// 提前结束的原因，挖掘完整时为null
+	private final MiningBudget.StopReason stopReason;
+	// 按挖掘次序排列的种子边，点边标号为重新标号后的标号
+	private final ArrayList<Edge> seedEdges;
+	// 每条种子边的子树是否挖掘完整
+	private final boolean[] explored;
+	// 挖掘用时，单位毫秒
+	private final long elapsedMillis;
+
+	MiningReport(MiningBudget.StopReason stopReason, ArrayList<Edge> seedEdges,
+			boolean[] explored, long elapsedMillis) {
+		this.stopReason = stopReason;
+		this.seedEdges = seedEdges;
+		this.explored = explored;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	/**
+	 * 是否挖掘完整，没有因超出预算提前结束
+	 */
+	public boolean isComplete() {
+		return stopReason == null;
+	}
+
+	public MiningBudget.StopReason getStopReason() {
+		return stopReason;
+	}
+
+	public ArrayList<Edge> getSeedEdges() {
+		return seedEdges;
+	}
+
+	/**
+	 * 第i条种子边的子树是否挖掘完整
+	 */
+	public boolean isExplored(int i) {
+		return explored[i];
+	}
+
+	/**
+	 * 子树挖掘完整的种子边个数
+	 */
+	public int getExploredCount() {
+		int count = 0;
+		for (boolean e : explored) {
+			if (e) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(isComplete() ? "complete" : "stopped by " + stopReason).append(", ")
+				.append(getExploredCount()).append('/').append(seedEdges.size())
+				.append(" seed edges explored in ").append(elapsedMillis).append("ms");
+		if (!isComplete()) {
+			sb.append(", unexplored:");
+			for (int i = 0; i < seedEdges.size(); i++) {
+				if (!explored[i]) {
+					Edge e = seedEdges.get(i);
+					sb.append(" (").append(e.x).append(", ").append(e.a).append(", ")
+							.append(e.y).append(')');
+				}
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,288 @@
+package DataMining;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行读取图集文件
+ *
+ * 文件在图的t行处切分为若干段，每段由一个任务用GraphDataReader单独解析，各段的图按段的次序
+ * 拼接，图id与串行读取时相同。使用标号字典时每段先用自己的字典编码，之后按段的次序把各段字典
+ * 合并到全局字典中，合并后的编码次序与串行读取时第一次出现的次序相同，再把各段图的标号换成全局编码。
+ * 另外提供按图并行处理的forEach，用于读入之后各个图之间互不依赖的预处理步骤。
+ *
+ * @author cuilijuan
+ *
+ */
+public class ParallelGraphLoader {
+	// 每个线程平均分到的段数，段多一些可以平衡各段图的大小差异
+	private static final int CHUNKS_PER_THREAD = 4;
+	// 每段的最小字节数，文件较小时少分几段
+	private static final long CHUNK_MIN_BYTES = 1 << 16;
+	// 按图并行处理时每个任务的最少图数
+	private static final int GRAPHS_PER_TASK = 256;
+
+	/**
+	 * 对每个图执行的处理
+	 */
+	public interface GraphBody {
+		void apply(int graphId);
+	}
+
+	/**
+	 * 并行读取图集文件
+	 *
+	 * @param filePath
+	 *            文件地址
+	 * @param parallelism
+	 *            并行线程数
+	 * @param nodeDictionary
+	 *            点标号字典，为null时点标号按整数读取
+	 * @param edgeDictionary
+	 *            边标号字典，为null时边标号按整数读取
+	 * @return 按文件中的次序排列的图数据
+	 * @throws IOException
+	 */
+	public static ArrayList<GraphData> load(String filePath, int parallelism,
+			LabelDictionary nodeDictionary, LabelDictionary edgeDictionary) throws IOException {
+		long[] bounds = split(filePath, parallelism * CHUNKS_PER_THREAD);
+		int chunkNum = bounds.length - 1;
+		final Chunk[] chunks = new Chunk[chunkNum];
+		for (int i = 0; i < chunkNum; i++) {
+			chunks[i] = new Chunk(filePath, bounds[i], bounds[i + 1], nodeDictionary != null,
+					edgeDictionary != null);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new RangeTask(0, chunkNum, 1, new GraphBody() {
+				@Override
+				public void apply(int i) {
+					chunks[i].parse();
+				}
+			}));
+
+			if (nodeDictionary != null || edgeDictionary != null) {
+				// 按段的次序合并字典，再把各段的局部编码换成全局编码
+				for (Chunk chunk : chunks) {
+					chunk.nodeCodes = merge(chunk.nodeDictionary, nodeDictionary);
+					chunk.edgeCodes = merge(chunk.edgeDictionary, edgeDictionary);
+				}
+				pool.invoke(new RangeTask(0, chunkNum, 1, new GraphBody() {
+					@Override
+					public void apply(int i) {
+						chunks[i].recode();
+					}
+				}));
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			pool.shutdown();
+		}
+
+		int graphNum = 0;
+		for (Chunk chunk : chunks) {
+			graphNum += chunk.graphs.size();
+		}
+		ArrayList<GraphData> graphs = new ArrayList<>(graphNum);
+		for (Chunk chunk : chunks) {
+			graphs.addAll(chunk.graphs);
+		}
+		return graphs;
+	}
+
+	/**
+	 * 对每个图并行执行处理
+	 *
+	 * @param graphNum
+	 *            图的个数
+	 * @param parallelism
+	 *            并行线程数，1为串行处理
+	 * @param body
+	 *            对每个图的处理，不同的图之间不能相互依赖
+	 */
+	public static void forEach(int graphNum, int parallelism, GraphBody body) {
+		if (parallelism <= 1 || graphNum < 2 * GRAPHS_PER_TASK) {
+			for (int i = 0; i < graphNum; i++) {
+				body.apply(i);
+			}
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new RangeTask(0, graphNum, GRAPHS_PER_TASK, body));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * 在t行处切分文件
+	 *
+	 * @return 各段的起始位置，最后一个为文件长度
+	 */
+	private static long[] split(String filePath, int maxChunks) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath),
+				StandardOpenOption.READ)) {
+			long size = channel.size();
+			int chunkNum = (int) Math.max(1, Math.min(maxChunks, size / CHUNK_MIN_BYTES));
+			ArrayList<Long> bounds = new ArrayList<>();
+			bounds.add(0L);
+			ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+			for (int i = 1; i < chunkNum; i++) {
+				long bound = nextGraphStart(channel, buffer, size * i / chunkNum);
+				if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+					bounds.add(bound);
+				}
+			}
+			bounds.add(size);
+
+			long[] array = new long[bounds.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = bounds.get(i);
+			}
+			return array;
+		}
+	}
+
+	/**
+	 * 从from开始找到下一个行首的t的位置，没有则返回文件长度
+	 */
+	private static long nextGraphStart(FileChannel channel, ByteBuffer buffer, long from)
+			throws IOException {
+		long position = from;
+		// from之前的一个字节是否为换行
+		boolean lineStart = false;
+		if (position > 0) {
+			buffer.clear();
+			buffer.limit(1);
+			channel.read(buffer, position - 1);
+			lineStart = buffer.get(0) == '\n';
+		}
+		while (true) {
+			buffer.clear();
+			int n = channel.read(buffer, position);
+			if (n <= 0) {
+				return channel.size();
+			}
+			for (int i = 0; i < n; i++) {
+				byte c = buffer.get(i);
+				if (lineStart && c == 't') {
+					return position + i;
+				}
+				lineStart = c == '\n';
+			}
+			position += n;
+		}
+	}
+
+	/**
+	 * 把段的局部字典合并到全局字典中
+	 *
+	 * @return 局部编码对全局编码的映射，没有字典时为null
+	 */
+	private static int[] merge(LabelDictionary local, LabelDictionary global) {
+		if (local == null) {
+			return null;
+		}
+		int[] codes = new int[local.size()];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = global.encode(local.decode(i));
+		}
+		return codes;
+	}
+
+	/**
+	 * 文件中的一段
+	 */
+	private static class Chunk {
+		final String filePath;
+		final long start;
+		final long end;
+		// 段内使用的局部字典
+		LabelDictionary nodeDictionary;
+		LabelDictionary edgeDictionary;
+		// 局部编码对全局编码的映射
+		int[] nodeCodes;
+		int[] edgeCodes;
+		// 段内的图数据
+		ArrayList<GraphData> graphs = new ArrayList<>();
+
+		Chunk(String filePath, long start, long end, boolean nodeDictionary,
+				boolean edgeDictionary) {
+			this.filePath = filePath;
+			this.start = start;
+			this.end = end;
+			this.nodeDictionary = nodeDictionary ? new LabelDictionary() : null;
+			this.edgeDictionary = edgeDictionary ? new LabelDictionary() : null;
+		}
+
+		void parse() {
+			try (GraphDataReader reader = new GraphDataReader(filePath, start, end,
+					nodeDictionary, edgeDictionary)) {
+				GraphData gd;
+				while ((gd = reader.next()) != null) {
+					graphs.add(gd);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void recode() {
+			for (GraphData gd : graphs) {
+				recode(gd.getNodeLabels(), nodeCodes);
+				recode(gd.getEdgeLabels(), edgeCodes);
+			}
+		}
+
+		private static void recode(ArrayList<Integer> labels, int[] codes) {
+			if (codes == null) {
+				return;
+			}
+			for (int i = 0; i < labels.size(); i++) {
+				labels.set(i, codes[labels.get(i)]);
+			}
+		}
+	}
+
+	/**
+	 * 按下标区间并行执行处理的任务，区间较大时对半拆分
+	 */
+	private static class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		// 不再拆分的区间大小
+		private final int grain;
+		private final GraphBody body;
+
+		RangeTask(int from, int to, int grain, GraphBody body) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				for (int i = from; i < to; i++) {
+					body.apply(i);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+		}
+	}
+}
@@ -0,0 +1,306 @@
+package DataMining;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * 增量挖掘保存的频繁子图集合，见IncrementalMiner
+ *
+ * 以挖掘树的形式保存：每个结点是一个最小编码，其编码为父结点的编码加上结点的最后一条边，
+ * 根的孩子为单边子图。树中包括全部频繁子图，以及频繁子图的不频繁孩子编码（边界子图），
+ * 每个结点都记录拥有它的图id。标号为标号字典的编码，字典与子图一起保存，
+ * 之后读入的新标号只会追加编码，已保存的编码和DFS编码次序不会改变。
+ *
+ * 文件格式，全部为大端编码：
+ * 魔数、版本号、最小支持度率(double)、最大边数、最大点数、已处理的图集文件长度(long)、
+ * 图的个数、每个图的t行在图集文件中的位置(long)、点标号字典、边标号字典
+ * (标号个数和每个标号的UTF编码)，之后按先序写出挖掘树：每个结点为最后一条边的五元组、
+ * 点数、是否频繁、支持图个数、图id、孩子个数。
+ * 写入时先写临时文件再替换，进程中途被杀掉时原有文件保持不变。不支持追加写入，
+ * 每次都读写整个文件，大小与所有结点的支持度之和成正比。
+ *
+ * @author cuilijuan
+ *
+ */
+public class PatternStore {
+	// 文件的魔数 "GSPT"，与GraphSnapshot的"GSPS"不同，两种文件不会被互相误读
+	public static final int MAGIC = 0x47535054;
+	// 文件格式的版本号
+	public static final int VERSION = 1;
+	// 空的图id数组
+	static final int[] EMPTY_IDS = new int[0];
+
+	// 最小支持度率
+	private final double minSupportRate;
+	// 子图的最大边数
+	private final int maxEdges;
+	// 子图的最大点数
+	private final int maxNodes;
+	// 已处理的图集文件长度
+	private long databaseLength = 0;
+	// 图的个数
+	private int graphNum = 0;
+	// 每个图的t行在图集文件中的位置
+	private long[] graphOffsets = new long[16];
+	// 点标号和边标号的字典
+	private LabelDictionary nodeDictionary = new LabelDictionary();
+	private LabelDictionary edgeDictionary = new LabelDictionary();
+	// 挖掘树的根，代表空编码
+	private Node root = new Node(null, 0, EMPTY_IDS, true);
+
+	/**
+	 * 挖掘树中的一个编码
+	 */
+	public static class Node {
+		// 编码的最后一条边，根为null
+		final Edge edge;
+		// 编码所含的点的个数
+		final int nodeNum;
+		// 拥有此子图的图id，升序排列
+		final int[] graphIds;
+		// 是否频繁，不频繁的结点没有孩子
+		final boolean frequent;
+		// 按DFS编码次序排列的孩子编码
+		final ArrayList<Node> children = new ArrayList<>();
+
+		Node(Edge edge, int nodeNum, int[] graphIds, boolean frequent) {
+			this.edge = edge;
+			this.nodeNum = nodeNum;
+			this.graphIds = graphIds;
+			this.frequent = frequent;
+		}
+
+		public Edge getEdge() {
+			return edge;
+		}
+
+		public int getNodeNum() {
+			return nodeNum;
+		}
+
+		public int[] getGraphIds() {
+			return graphIds;
+		}
+
+		public boolean isFrequent() {
+			return frequent;
+		}
+
+		public ArrayList<Node> getChildren() {
+			return children;
+		}
+	}
+
+	public PatternStore(double minSupportRate, int maxEdges, int maxNodes) {
+		this.minSupportRate = minSupportRate;
+		this.maxEdges = maxEdges;
+		this.maxNodes = maxNodes;
+	}
+
+	public double getMinSupportRate() {
+		return minSupportRate;
+	}
+
+	public int getMaxEdges() {
+		return maxEdges;
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	public long getDatabaseLength() {
+		return databaseLength;
+	}
+
+	public int getGraphNum() {
+		return graphNum;
+	}
+
+	/**
+	 * 图的t行在图集文件中的位置
+	 */
+	public long getGraphOffset(int graphId) {
+		return graphOffsets[graphId];
+	}
+
+	public LabelDictionary getNodeDictionary() {
+		return nodeDictionary;
+	}
+
+	public LabelDictionary getEdgeDictionary() {
+		return edgeDictionary;
+	}
+
+	public Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * 追加新读入的图
+	 *
+	 * @param offset
+	 *            图的t行在图集文件中的位置
+	 */
+	void addGraph(long offset) {
+		if (graphNum == graphOffsets.length) {
+			graphOffsets = Arrays.copyOf(graphOffsets, graphNum * 2);
+		}
+		graphOffsets[graphNum++] = offset;
+	}
+
+	void setDatabaseLength(long databaseLength) {
+		this.databaseLength = databaseLength;
+	}
+
+	void setRoot(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * 频繁子图的个数
+	 */
+	public int getFrequentCount() {
+		return countFrequent(root) - 1;
+	}
+
+	private static int countFrequent(Node node) {
+		if (!node.frequent) {
+			return 0;
+		}
+		int count = 1;
+		for (Node child : node.children) {
+			count += countFrequent(child);
+		}
+		return count;
+	}
+
+	/**
+	 * 写出到文件，先写临时文件再替换原有文件
+	 *
+	 * @param path
+	 *            文件地址
+	 * @throws IOException
+	 */
+	public void write(String path) throws IOException {
+		File target = new File(path);
+		File temp = new File(path + ".tmp");
+		try (FileOutputStream file = new FileOutputStream(temp)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeDouble(minSupportRate);
+			out.writeInt(maxEdges);
+			out.writeInt(maxNodes);
+			out.writeLong(databaseLength);
+			out.writeInt(graphNum);
+			for (int i = 0; i < graphNum; i++) {
+				out.writeLong(graphOffsets[i]);
+			}
+			writeDictionary(out, nodeDictionary);
+			writeDictionary(out, edgeDictionary);
+			writeChildren(out, root);
+			out.flush();
+			file.getFD().sync();
+		}
+		Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void writeDictionary(DataOutputStream out, LabelDictionary dictionary)
+			throws IOException {
+		out.writeInt(dictionary.size());
+		for (int i = 0; i < dictionary.size(); i++) {
+			out.writeUTF(dictionary.decode(i));
+		}
+	}
+
+	private static void writeChildren(DataOutputStream out, Node node) throws IOException {
+		out.writeInt(node.children.size());
+		for (Node child : node.children) {
+			Edge e = child.edge;
+			out.writeInt(e.ix);
+			out.writeInt(e.iy);
+			out.writeInt(e.x);
+			out.writeInt(e.a);
+			out.writeInt(e.y);
+			out.writeInt(child.nodeNum);
+			out.writeBoolean(child.frequent);
+			out.writeInt(child.graphIds.length);
+			for (int id : child.graphIds) {
+				out.writeInt(id);
+			}
+			writeChildren(out, child);
+		}
+	}
+
+	/**
+	 * 从文件读入
+	 *
+	 * @param path
+	 *            文件地址
+	 * @return
+	 * @throws IOException
+	 */
+	public static PatternStore read(String path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(path), 1 << 16))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(path + " is not a pattern store");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("unsupported pattern store version " + version + " in "
+						+ path);
+			}
+			PatternStore store = new PatternStore(in.readDouble(), in.readInt(), in.readInt());
+			store.databaseLength = in.readLong();
+			int graphNum = in.readInt();
+			store.graphOffsets = new long[Math.max(16, graphNum)];
+			for (int i = 0; i < graphNum; i++) {
+				store.graphOffsets[i] = in.readLong();
+			}
+			store.graphNum = graphNum;
+			store.nodeDictionary = readDictionary(in);
+			store.edgeDictionary = readDictionary(in);
+			readChildren(in, store.root);
+			return store;
+		}
+	}
+
+	private static LabelDictionary readDictionary(DataInputStream in) throws IOException {
+		LabelDictionary dictionary = new LabelDictionary();
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			dictionary.encode(in.readUTF());
+		}
+		return dictionary;
+	}
+
+	private static void readChildren(DataInputStream in, Node node) throws IOException {
+		int childNum = in.readInt();
+		for (int i = 0; i < childNum; i++) {
+			Edge e = new Edge(in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+					in.readInt());
+			int nodeNum = in.readInt();
+			boolean frequent = in.readBoolean();
+			int[] ids = new int[in.readInt()];
+			for (int j = 0; j < ids.length; j++) {
+				ids[j] = in.readInt();
+			}
+			Node child = new Node(e, nodeNum, ids, frequent);
+			node.children.add(child);
+			readChildren(in, child);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package DataMining;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 频繁子图结果的接收接口，挖掘过程中每找到一个满足条件的子图就立即交给它
+ * 
+ * 子图按串行挖掘的次序到达。并行挖掘时各种子边的结果先在任务中缓冲，再由调用mine()的
+ * 线程按种子边的次序交给接收者，因此与串行挖掘的次序相同
+ * 
+ * @author cuilijuan
+ * 
+ */
+public interface ResultSink extends Closeable {
+
+	/**
+	 * 接收一个频繁子图
+	 * 
+	 * @param gc
+	 *            子图的图编码，包括边五元组序列和拥有此子图的图id
+	 * @param nodeNum
+	 *            子图的点数
+	 * @param weight
+	 *            子图的权重
+	 * @throws IOException
+	 */
+	void accept(GraphCode gc, int nodeNum, double weight) throws IOException;
+
+	/**
+	 * 挖掘结束时调用，将缓冲的结果写出
+	 * 
+	 * @throws IOException
+	 */
+	void flush() throws IOException;
+}
@@ -0,0 +1,125 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 并行挖掘任务类，以某个图编码为根的挖掘子树作为一个ForkJoin任务
+ *
+ * @author cuilijuan
+ *
+ */
+public class SubMiningTask extends RecursiveTask<Graph> {
+	private static final long serialVersionUID = 1L;
+
+	// 挖掘工具，提供编码构图、最小编码判断和孩子编码的生成
+	private GSpanTool tool;
+	// 当前的图编码
+	private GraphCode gc;
+	// 图所含的点的个数
+	private int next;
+	// 子树是否在预算之内挖掘完整
+	private boolean withinBudget;
+	// 种子边的序号，不是种子边的任务为-1
+	private int seedIndex;
+	// 子树中被接受的结果，按串行挖掘的先序次序排列，由父任务或mine()取走后输出
+	private ArrayList<MiningCheckpoint.Pattern> patterns;
+
+	public SubMiningTask(GSpanTool tool, GraphCode gc, int next) {
+		this(tool, gc, next, -1);
+	}
+
+	SubMiningTask(GSpanTool tool, GraphCode gc, int next, int seedIndex) {
+		this.tool = tool;
+		this.gc = gc;
+		this.next = next;
+		this.seedIndex = seedIndex;
+	}
+
+	/**
+	 * 挖掘当前编码的子树，支持图足够多的孩子子树拆分为新任务，其余的直接串行挖掘
+	 *
+	 * 结果不直接交给结果接收者，而是按孩子的次序收集到patterns中，拆分出去的子树结束后
+	 * 再合并，使输出次序与串行挖掘相同
+	 *
+	 * @return 此编码子树中最后一个满足权重条件的子图，没有则返回null
+	 */
+	@Override
+	protected Graph compute() {
+		long start = System.nanoTime();
+		patterns = new ArrayList<>();
+		// 等待孩子任务时线程可能执行别的任务，每段串行挖掘前都重新设置缓冲，结束后恢复
+		ArrayList<MiningCheckpoint.Pattern> outer = tool.swapPatternBuffer(patterns);
+		GSpanTool.CodeVisit visit;
+		try {
+			visit = tool.visitCode(gc, next);
+		} finally {
+			tool.swapPatternBuffer(outer);
+		}
+		Graph result = visit.result;
+		ArrayList<GraphCode> children = visit.children;
+		// 孩子子树的结果，拆分出去的任务先占位，之后按原有次序合并
+		Graph[] childResults = new Graph[children.size()];
+		SubMiningTask[] forked = new SubMiningTask[children.size()];
+		// 直接串行挖掘的孩子子树收集的结果
+		ArrayList<ArrayList<MiningCheckpoint.Pattern>> childPatterns = new ArrayList<>();
+		for (int i = 0; i < children.size(); i++) {
+			GraphCode nGc = children.get(i);
+			int nNext = tool.childNext(nGc, next);
+			childPatterns.add(null);
+			if (nGc.gs.cardinality() >= tool.FORK_MIN_GRAPHS) {
+				forked[i] = new SubMiningTask(tool, nGc, nNext);
+				forked[i].fork();
+			} else {
+				childPatterns.set(i, new ArrayList<MiningCheckpoint.Pattern>());
+				outer = tool.swapPatternBuffer(childPatterns.get(i));
+				try {
+					childResults[i] = tool.subMining(nGc, nNext);
+				} finally {
+					tool.swapPatternBuffer(outer);
+				}
+			}
+		}
+
+		for (int i = 0; i < children.size(); i++) {
+			if (forked[i] != null) {
+				childResults[i] = forked[i].join();
+				patterns.addAll(forked[i].takePatterns());
+			} else {
+				patterns.addAll(childPatterns.get(i));
+			}
+			childPatterns.set(i, null);
+			if (childResults[i] != null) {
+				result = childResults[i];
+			}
+		}
+
+		// 所有孩子任务都已结束，此时预算仍未超出说明子树挖掘完整
+		withinBudget = !tool.isBudgetStopped();
+		if (gc.getEdgeSeq().size() == 1) {
+			// 种子边的任务结束时记录检查点
+			tool.finishSeed(gc, withinBudget, patterns);
+		}
+		MiningMetrics metrics = tool.getMetrics();
+		if (seedIndex >= 0 && metrics != null) {
+			metrics.seedFinished(seedIndex, System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	/**
+	 * 取走子树中被接受的结果，按串行挖掘的先序次序排列，任务结束后才有意义
+	 */
+	ArrayList<MiningCheckpoint.Pattern> takePatterns() {
+		ArrayList<MiningCheckpoint.Pattern> result = patterns;
+		patterns = null;
+		return result;
+	}
+
+	/**
+	 * 子树是否在预算之内挖掘完整，任务结束后才有意义
+	 */
+	public boolean isWithinBudget() {
+		return withinBudget;
+	}
+}
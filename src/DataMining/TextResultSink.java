@@ -0,0 +1,123 @@
+package DataMining;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 以gSpan标准格式输出频繁子图的文本文件：
+ * 
+ * t # 子图序号 * 支持度
+ * v 点id 点标号
+ * e 边的一端id 边的另一端id 边标号
+ * x: 拥有此子图的图id
+ * 
+ * 给定标号字典时，点标号和边标号还原为原始标号输出
+ * 
+ * @author cuilijuan
+ * 
+ */
+public class TextResultSink implements ResultSink {
+	// 输出
+	private Writer out;
+	// 已输出的子图个数
+	private long count = 0;
+	// 子图点标号的临时数组
+	private int[] nodeLabels = new int[0];
+	// 点标号和边标号的字典，为null时直接输出整数标号
+	private LabelDictionary nodeDictionary;
+	private LabelDictionary edgeDictionary;
+
+	public TextResultSink(String filePath) throws IOException {
+		this(open(filePath));
+	}
+
+	public TextResultSink(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * @param filePath
+	 *            输出文件地址
+	 * @param nodeDictionary
+	 *            点标号字典，见GSpanTool.getNodeLabelDictionary
+	 * @param edgeDictionary
+	 *            边标号字典
+	 * @throws IOException
+	 */
+	public TextResultSink(String filePath, LabelDictionary nodeDictionary,
+			LabelDictionary edgeDictionary) throws IOException {
+		this(open(filePath), nodeDictionary, edgeDictionary);
+	}
+
+	public TextResultSink(Writer out, LabelDictionary nodeDictionary,
+			LabelDictionary edgeDictionary) {
+		this.out = out;
+		this.nodeDictionary = nodeDictionary;
+		this.edgeDictionary = edgeDictionary;
+	}
+
+	/**
+	 * 以UTF-8编码打开输出文件，与读取标号时的编码一致
+	 */
+	private static Writer open(String filePath) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath),
+				StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	@Override
+	public synchronized void accept(GraphCode gc, int nodeNum, double weight)
+			throws IOException {
+		if (nodeLabels.length < nodeNum) {
+			nodeLabels = new int[nodeNum];
+		}
+		for (Edge e : gc.getEdgeSeq()) {
+			nodeLabels[e.ix] = e.x;
+			nodeLabels[e.iy] = e.y;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("t # ").append(count++).append(" * ").append(gc.getGs().cardinality()).append('\n');
+		for (int i = 0; i < nodeNum; i++) {
+			sb.append("v ").append(i).append(' ');
+			if (nodeDictionary != null) {
+				sb.append(nodeDictionary.decode(nodeLabels[i]));
+			} else {
+				sb.append(nodeLabels[i]);
+			}
+			sb.append('\n');
+		}
+		for (Edge e : gc.getEdgeSeq()) {
+			sb.append("e ").append(e.ix).append(' ').append(e.iy).append(' ');
+			if (edgeDictionary != null) {
+				sb.append(edgeDictionary.decode(e.a));
+			} else {
+				sb.append(e.a);
+			}
+			sb.append('\n');
+		}
+		sb.append("x:");
+		for (int id : gc.getGs().toArray()) {
+			sb.append(' ').append(id);
+		}
+		sb.append("\n\n");
+		out.write(sb.toString());
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,158 @@
+package DataMining;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * top-k挖掘的结果收集类，用小顶堆保留得分最高的k个子图
+ *
+ * 按支持度排序时得分为支持图的个数，按权重排序时得分为子图的权重，得分相同时编码小的优先，
+ * 保证并行挖掘的结果也是确定的。堆满之后堆顶的得分就是新子图进入结果的门槛。
+ *
+ * @author cuilijuan
+ *
+ */
+public class TopKCollector {
+	// 保留的子图个数
+	private final int k;
+	// 是否按权重排序，否则按支持度排序
+	private final boolean byWeight;
+	// 小顶堆，堆顶为当前结果中最差的子图
+	private final PriorityQueue<Pattern> heap;
+
+	/**
+	 * 结果中的一个子图
+	 */
+	public static class Pattern {
+		// 子图的图编码
+		final GraphCode gc;
+		// 子图的点数
+		final int nodeNum;
+		// 子图
+		final Graph graph;
+		// 子图的权重
+		final double weight;
+		// 排序用的得分
+		final double score;
+
+		Pattern(GraphCode gc, int nodeNum, Graph graph, double weight, double score) {
+			this.gc = gc;
+			this.nodeNum = nodeNum;
+			this.graph = graph;
+			this.weight = weight;
+			this.score = score;
+		}
+
+		public GraphCode getGc() {
+			return gc;
+		}
+
+		public int getNodeNum() {
+			return nodeNum;
+		}
+
+		public Graph getGraph() {
+			return graph;
+		}
+
+		public double getWeight() {
+			return weight;
+		}
+	}
+
+	// 从差到好的次序：得分小的差，得分相同时编码大的差
+	private static final Comparator<Pattern> WORST_FIRST = new Comparator<Pattern>() {
+		@Override
+		public int compare(Pattern p1, Pattern p2) {
+			int c = Double.compare(p1.score, p2.score);
+			if (c != 0) {
+				return c;
+			}
+			return -compareCode(p1.gc.getEdgeSeq(), p2.gc.getEdgeSeq());
+		}
+	};
+
+	/**
+	 * @param k
+	 *            保留的子图个数
+	 * @param byWeight
+	 *            是否按权重排序，否则按支持度排序
+	 */
+	public TopKCollector(int k, boolean byWeight) {
+		if (k < 1) {
+			throw new IllegalArgumentException("k must be positive: " + k);
+		}
+		this.k = k;
+		this.byWeight = byWeight;
+		this.heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+	}
+
+	/**
+	 * 按DFS字典序比较两个编码，前缀较短的为小
+	 */
+	static int compareCode(ArrayList<Edge> code1, ArrayList<Edge> code2) {
+		int size = Math.min(code1.size(), code2.size());
+		for (int i = 0; i < size; i++) {
+			int c = code1.get(i).compareWith(code2.get(i));
+			if (c == Edge.EDGE_SMALLER) {
+				return -1;
+			} else if (c == Edge.EDGE_LARGER) {
+				return 1;
+			}
+		}
+		return Integer.compare(code1.size(), code2.size());
+	}
+
+	public boolean isByWeight() {
+		return byWeight;
+	}
+
+	/**
+	 * 尝试将子图加入结果，堆满时替换掉最差的子图
+	 *
+	 * @return 子图是否进入了结果
+	 */
+	public synchronized boolean offer(GraphCode gc, int nodeNum, Graph graph, double weight) {
+		double score = byWeight ? weight : gc.getGs().cardinality();
+		Pattern pattern = new Pattern(gc, nodeNum, graph, weight, score);
+		if (heap.size() == k) {
+			if (WORST_FIRST.compare(pattern, heap.peek()) <= 0) {
+				return false;
+			}
+			heap.poll();
+		}
+		heap.offer(pattern);
+		return true;
+	}
+
+	/**
+	 * 按支持度排序时新子图进入结果所需的最小支持度计数，堆未满时为0
+	 */
+	public synchronized int getMinSupportCount() {
+		if (byWeight || heap.size() < k) {
+			return 0;
+		}
+		return (int) heap.peek().score;
+	}
+
+	/**
+	 * 按权重排序时新子图进入结果所需的最小权重，堆未满时为负无穷
+	 */
+	public synchronized double getMinWeight() {
+		if (!byWeight || heap.size() < k) {
+			return Double.NEGATIVE_INFINITY;
+		}
+		return heap.peek().score;
+	}
+
+	/**
+	 * 从好到差排列的结果
+	 */
+	public synchronized ArrayList<Pattern> getPatterns() {
+		ArrayList<Pattern> patterns = new ArrayList<>(heap);
+		Collections.sort(patterns, Collections.reverseOrder(WORST_FIRST));
+		return patterns;
+	}
+}